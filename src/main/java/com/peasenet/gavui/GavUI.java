@@ -21,10 +21,15 @@
 package com.peasenet.gavui;
 
 import com.peasenet.gavui.color.Color;
+import com.peasenet.gavui.color.ContrastResolver;
 import com.peasenet.gavui.util.GavUISettings;
+import com.peasenet.gavui.util.RenderStats;
+import com.peasenet.gavui.util.TextCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * @author gt3ch1
  * @version 7/13/2022
@@ -40,12 +45,18 @@ public class GavUI {
      * Initializes GavUI
      */
     public static void initialize() {
-        GavUISettings.initialize();
+        GavUISettings.initializeAsync().thenRun(() -> LOGGER.info("GavUI settings have been loaded."));
+        TextCache.register();
+        RenderStats.register();
+        // contrast results of the old theme are never needed again
+        for (var key : List.of(GavUISettings.BACKGROUND_COLOR, GavUISettings.FOREGROUND_COLOR, GavUISettings.CATEGORY_COLOR,
+                GavUISettings.ENABLED_COLOR, GavUISettings.FROZEN_COLOR))
+            GavUISettings.subscribe(key, color -> ContrastResolver.clear());
         LOGGER.info("GavUI has been initialized.");
     }
 
     public static Color borderColor() {
-        return GavUISettings.getColor("gui.color.border");
+        return GavUISettings.get(GavUISettings.BORDER_COLOR);
     }
 
     /**
@@ -54,7 +65,7 @@ public class GavUI {
      * @return The background color from settings.
      */
     public static Color backgroundColor() {
-        return GavUISettings.getColor("gui.color.background");
+        return GavUISettings.get(GavUISettings.BACKGROUND_COLOR);
     }
 
     /**
@@ -63,7 +74,7 @@ public class GavUI {
      * @return The foreground color from settings.
      */
     public static Color textColor() {
-        return GavUISettings.getColor("gui.color.foreground");
+        return GavUISettings.get(GavUISettings.FOREGROUND_COLOR);
     }
 
     /**
@@ -72,7 +83,7 @@ public class GavUI {
      * @return The alpha from settings.
      */
     public static float getAlpha() {
-        return GavUISettings.getFloat("gui.alpha");
+        return GavUISettings.getFloat(GavUISettings.ALPHA);
     }
 
     /**
@@ -81,7 +92,7 @@ public class GavUI {
      * @return The frozen element color from settings.
      */
     public static Color frozenColor() {
-        return GavUISettings.getColor("gui.color.frozen");
+        return GavUISettings.get(GavUISettings.FROZEN_COLOR);
     }
 
     /**
@@ -90,7 +101,7 @@ public class GavUI {
      * @return The category color from settings.
      */
     public static Color parentColor() {
-        return GavUISettings.getColor("gui.color.category");
+        return GavUISettings.get(GavUISettings.CATEGORY_COLOR);
     }
 
     /**
@@ -99,6 +110,6 @@ public class GavUI {
      * @return The color if an element is enabled from settings.
      */
     public static Color enabledColor() {
-        return GavUISettings.getColor("gui.color.enabled");
+        return GavUISettings.get(GavUISettings.ENABLED_COLOR);
     }
 }
@@ -22,24 +22,54 @@ package com.peasenet.gavui;
 
 import com.peasenet.gavui.color.Color;
 import com.peasenet.gavui.color.Colors;
+import com.peasenet.gavui.color.ContrastResolver;
 import com.peasenet.gavui.math.BoxF;
 import com.peasenet.gavui.math.PointF;
 import com.peasenet.gavui.util.GuiUtil;
+import com.peasenet.gavui.util.RenderStats;
+import com.peasenet.gavui.util.RetainedGeometry;
+import com.peasenet.gavui.util.Symbols;
+import com.peasenet.gavui.util.TextCache;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
+import net.minecraft.text.OrderedText;
 import net.minecraft.text.Text;
 
 import java.util.ArrayList;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
  * @author gt3ch1
  * @version 2/28/2023
  * The base class for all gui elements.
+ * <p>
+ * Rendering is batched: boxes, outlines and text drawn through {@link GuiUtil} are queued and drawn together, with
+ * the text on top, once the outermost {@link #endRender()} is reached. A subclass that overrides
+ * {@link #render(DrawContext, TextRenderer, int, int, float)} must therefore do all of its drawing, including anything
+ * drawn after calling {@code super.render}, between {@link #beginRender(DrawContext)} and {@link #endRender()}.
+ * Otherwise, the text of this gui is already drawn by the time {@code super.render} returns, and anything drawn after
+ * it paints over the text.
  */
 public class Gui {
 
+    /**
+     * Dirty flag set when the position, size, visibility or children of a gui have changed. Cleared when the gui is
+     * rendered.
+     */
+    public static final int DIRTY_LAYOUT = 1;
+
+    /**
+     * Dirty flag set when something that changes how a gui is drawn, but not where, has changed.
+     */
+    public static final int DIRTY_PAINT = 2;
+
+    /**
+     * Dirty flag set on every parent of a gui that has changed.
+     */
+    public static final int DIRTY_SUBTREE = 4;
+
     /**
      * The gui that was clicked.
      */
@@ -60,6 +90,14 @@ public class Gui {
      * The title of the gui.
      */
     protected Text title;
+    /**
+     * The cached prepared text and width of the title, see {@link TextCache}.
+     */
+    private TextCache.Entry titleEntry;
+    /**
+     * Whether the title is looked up in the {@link TextCache}, see {@link #setTitleCached(boolean)}.
+     */
+    private boolean titleCached = false;
     protected String translationKey;
     /**
      * The symbol to be drawn to the left of the end of the box (like a checkbox, empty box, or arrow).
@@ -109,6 +147,51 @@ public class Gui {
      */
     private boolean drawBorder = true;
 
+    /**
+     * Whether this gui keeps the geometry of itself and its children on the GPU between frames.
+     */
+    private boolean retained = false;
+
+    /**
+     * The geometry kept on the GPU when this gui is retained.
+     */
+    private RetainedGeometry retainedGeometry;
+
+    /**
+     * Whether the retained geometry is being captured during the current render.
+     */
+    private boolean capturing = false;
+
+    /**
+     * Whether the retained geometry is being reused during the current render.
+     */
+    private boolean reusing = false;
+
+    /**
+     * How deep in its own render methods this gui currently is.
+     */
+    private int renderDepth = 0;
+
+    /**
+     * The gui that this gui is a child of, if it was added through {@link #addChild(Gui)}.
+     */
+    private Gui parentGui;
+
+    /**
+     * The dirty flags of this gui, see {@link #DIRTY_LAYOUT}, {@link #DIRTY_PAINT} and {@link #DIRTY_SUBTREE}.
+     */
+    private int dirtyFlags = DIRTY_LAYOUT | DIRTY_PAINT;
+
+    /**
+     * The frame in which this gui, or any of its children, last changed. See {@link GuiUtil#getFrame()}.
+     */
+    private long changeVersion = 0;
+
+    /**
+     * Whether the mouse was over this gui when it was last rendered.
+     */
+    private boolean hovered = false;
+
     /**
      * Creates a new GUI menu.
      *
@@ -127,8 +210,9 @@ public class Gui {
     public Gui(GuiBuilder builder) {
         this.title = builder.getTitle();
         var w = builder.getWidth();
-        if (title != null && MinecraftClient.getInstance().textRenderer != null)
-            w = Math.max(w, MinecraftClient.getInstance().textRenderer.getWidth(title));
+        var client = MinecraftClient.getInstance();
+        if (title != null && client != null && client.textRenderer != null)
+            w = Math.max(w, getTitleEntry().getWidth(client.textRenderer));
 
         box = new BoxF(builder.getTopLeft(), w, builder.getHeight());
         defaultPosition = BoxF.copy(box);
@@ -153,6 +237,8 @@ public class Gui {
     }
 
     private void setDrawBorder(boolean drawBorder) {
+        if (this.drawBorder != drawBorder)
+            markPaintDirty();
         this.drawBorder = drawBorder;
     }
 
@@ -169,17 +255,18 @@ public class Gui {
      * @param transparency - The transparency of the gui.
      */
     public void setTransparency(float transparency) {
+        var old = this.transparency;
         this.transparency = transparency;
-        if (transparency == -1) {
-            return;
-        }
-        if (transparency < 0) {
-            this.transparency = 0f;
-        }
-        if (transparency > 1f) {
-            this.transparency = 1f;
+        if (transparency != -1) {
+            if (transparency < 0) {
+                this.transparency = 0f;
+            }
+            if (transparency > 1f) {
+                this.transparency = 1f;
+            }
         }
-
+        if (old != this.transparency)
+            markPaintDirty();
     }
 
     public Text getTitle() {
@@ -192,7 +279,36 @@ public class Gui {
      * @param title - The title of the gui.
      */
     public void setTitle(Text title) {
+        if (!Objects.equals(this.title, title))
+            markPaintDirty();
         this.title = title;
+        this.titleEntry = null;
+    }
+
+    /**
+     * Gets the cached prepared text and width of the title, looking it up again if the title was set again or the text
+     * cache was cleared.
+     *
+     * @return The cache entry of the title, or null if there is no title.
+     */
+    protected TextCache.Entry getTitleEntry() {
+        if (title == null)
+            return null;
+        if (titleEntry == null || !titleEntry.isValid())
+            titleEntry = titleCached ? TextCache.get(title) : TextCache.uncached(title);
+        return titleEntry;
+    }
+
+    /**
+     * Sets whether the title is looked up in the {@link TextCache}, so that guis showing the same static title share
+     * its prepared text and width. Titles are not cached by default. Either way, the prepared title is kept by this
+     * gui until its title is set again.
+     *
+     * @param titleCached - Whether the title is cached.
+     */
+    protected void setTitleCached(boolean titleCached) {
+        this.titleCached = titleCached;
+        this.titleEntry = null;
     }
 
     /**
@@ -210,6 +326,8 @@ public class Gui {
      * @param hoverable Whether this gui should be brightened when hovered.
      */
     public void setHoverable(boolean hoverable) {
+        if (this.hoverable != hoverable)
+            markPaintDirty();
         this.hoverable = hoverable;
     }
 
@@ -228,6 +346,8 @@ public class Gui {
      * @param parent - True if we want this element to be a parent.
      */
     public void setParent(boolean parent) {
+        if (isParent != parent)
+            markPaintDirty();
         isParent = parent;
     }
 
@@ -237,6 +357,8 @@ public class Gui {
      * @param symbol - The symbol to draw.
      */
     public void setSymbol(char symbol) {
+        if (this.symbol != symbol)
+            markPaintDirty();
         this.symbol = symbol;
     }
 
@@ -244,7 +366,42 @@ public class Gui {
      * Clears all children from this gui.
      */
     public void clearChildren() {
+        for (Gui child : children) {
+            child.parentGui = null;
+            child.releaseRetained();
+        }
         children = new ArrayList<>();
+        markLayoutDirty();
+    }
+
+    /**
+     * Adds the given gui to the children of this gui, without positioning it.
+     *
+     * @param child - The child to add.
+     */
+    protected void addChild(Gui child) {
+        children.add(child);
+        adopt(child);
+        markLayoutDirty();
+    }
+
+    /**
+     * Makes this gui the parent of the given gui, so that changes to the child are reported to this gui. Children that
+     * were added to {@link #getChildren()} directly are adopted when they are first rendered.
+     *
+     * @param child - The child to adopt.
+     */
+    protected void adopt(Gui child) {
+        child.parentGui = this;
+    }
+
+    /**
+     * Gets the gui that this gui is a child of.
+     *
+     * @return The parent gui, or null if this gui is not a child of another gui.
+     */
+    public Gui getParentGui() {
+        return parentGui;
     }
 
     /**
@@ -263,16 +420,16 @@ public class Gui {
      */
     public void addElement(Gui child) {
         if (children.isEmpty()) {
-            child.setPosition(new PointF(getX2() + 100, getY2() + 1));
-            children.add(child);
+            child.setPosition(getX2() + 100, getY2() + 1);
+            addChild(child);
             return;
         }
         // get last gui
         Gui lastButton = children.get(children.size() - 1);
         var lastY = lastButton.getY2();
         // set new gui position
-        child.setPosition(new PointF(getX(), lastY + 2));
-        children.add(child);
+        child.setPosition(getX(), lastY + 2);
+        addChild(child);
     }
 
     /**
@@ -294,6 +451,8 @@ public class Gui {
                 children.forEach(Gui::show);
             }
         }
+        if (this.hidden != hidden)
+            markLayoutDirty();
         this.hidden = hidden;
     }
 
@@ -317,6 +476,8 @@ public class Gui {
      * @param color - The color to set the background to.
      */
     public void setBackground(Color color) {
+        if (backgroundColor != color && (backgroundColor == null || color == null || !backgroundColor.equals(color)))
+            markPaintDirty();
         backgroundColor = color;
     }
 
@@ -371,7 +532,9 @@ public class Gui {
      * @param width - The width of the gui.
      */
     public void setWidth(float width) {
-        box = new BoxF(box.getTopLeft(), width, box.getHeight());
+        if (width != box.getWidth())
+            markLayoutDirty();
+        box.resize(width, box.getHeight());
     }
 
     /**
@@ -395,7 +558,8 @@ public class Gui {
     }
 
     /**
-     * Renders the clickable ui
+     * Renders the clickable ui. Overrides that draw anything themselves must do so between
+     * {@link #beginRender(DrawContext)} and {@link #endRender()}, see the class description.
      *
      * @param drawContext The draw context used to draw boxes on screen.
      * @param tr          The text render to use to draw text
@@ -404,28 +568,218 @@ public class Gui {
      * @param delta       The change in time since the last render.
      */
     public void render(DrawContext drawContext, TextRenderer tr, int mouseX, int mouseY, float delta) {
-        if (isHidden()) return;
+        if (isHidden()) {
+            RenderStats.increment(RenderStats.Counter.WIDGETS_HIDDEN);
+            return;
+        }
+        beginRender(drawContext);
         var matrixStack = drawContext.getMatrices();
         var bg = backgroundColor;
         if (bg == null)
             bg = GavUI.backgroundColor();
-        if (mouseWithinGui(mouseX, mouseY) && hoverable)
+        if (updateHovered(mouseWithinGui(mouseX, mouseY) && hoverable))
             bg = bg.brighten(0.25f);
         GuiUtil.drawBox(bg, getBox(), matrixStack, getTransparency());
         var textColor = GavUI.textColor();
         if (title != null) {
-            if (textColor.similarity(bg) < 0.3f) {
-                textColor = textColor.invert();
-                if (textColor.similarity(bg) < 0.3f)
-                    textColor = Colors.WHITE;
-            }
-            drawText(drawContext, tr, title, getX() + 2, getY() + 1.5f, textColor);
+            textColor = ContrastResolver.resolve(textColor, bg, 0.3f);
+            GuiUtil.drawText(tr, getTitleEntry().getOrderedText(), getX() + 2, getY() + 1.5f, textColor, false, matrixStack);
 
         }
         drawSymbol(drawContext, tr, textColor);
         if (this.drawBorder)
             GuiUtil.drawOutline(GavUI.borderColor(), box, matrixStack);
         renderChildren(drawContext, tr, mouseX, mouseY, delta);
+        endRender();
+    }
+
+    /**
+     * Starts rendering this gui. Every render method must call this before drawing anything, and call
+     * {@link #endRender()} once done, after everything it draws, including what is drawn after {@code super.render}. Geometry drawn in between is batched, and if this gui is retained, it is either
+     * captured or replaced by the geometry that was captured before.
+     *
+     * @param drawContext - The draw context that is used for drawing.
+     */
+    protected void beginRender(DrawContext drawContext) {
+        GuiUtil.beginBatch();
+        if (renderDepth == 0)
+            RenderStats.increment(RenderStats.Counter.WIDGETS_VISITED);
+        if (renderDepth++ > 0 || !retained || !RetainedGeometry.isAvailable()) return;
+        if (retainedGeometry == null)
+            retainedGeometry = new RetainedGeometry();
+        var matrix = drawContext.getMatrices().peek().getPositionMatrix();
+        if (retainedGeometry.isValid(matrix, changeVersion)) {
+            reusing = true;
+            retainedGeometry.beginReuse();
+            return;
+        }
+        capturing = true;
+        retainedGeometry.beginCapture(matrix);
+    }
+
+    /**
+     * Finishes rendering this gui, see {@link #beginRender(DrawContext)}. Once the outermost render of this gui is
+     * done, its dirty flags are cleared, as it has been drawn in its current state.
+     */
+    protected void endRender() {
+        if (--renderDepth == 0)
+            clearDirty();
+        if (renderDepth == 0 && (capturing || reusing)) {
+            if (capturing)
+                retainedGeometry.endCapture();
+            else
+                retainedGeometry.endReuse();
+            capturing = false;
+            reusing = false;
+            // draw what came before this gui first, so that the retained geometry keeps its place in the order.
+            retainedGeometry.flushAndDraw();
+        }
+        GuiUtil.endBatch();
+    }
+
+    /**
+     * Whether this gui keeps its geometry, and that of its children, on the GPU between frames.
+     *
+     * @return True if this gui is retained.
+     */
+    public boolean isRetained() {
+        return retained;
+    }
+
+    /**
+     * Sets whether this gui keeps its geometry, and that of its children, on the GPU between frames. The geometry is
+     * only rebuilt when something that changes how the gui looks has changed. This is best suited for panels that
+     * stay the same for many frames. Text is always drawn as usual.
+     *
+     * @param retained - Whether this gui should be retained.
+     */
+    public void setRetained(boolean retained) {
+        this.retained = retained;
+        if (!retained && retainedGeometry != null) {
+            retainedGeometry.close();
+            retainedGeometry = null;
+        }
+        markPaintDirty();
+    }
+
+    /**
+     * Releases the GPU buffers held by this gui and all of its children. Screens that show retained guis should call
+     * this when they are closed, for example from {@code Screen#removed()}, as the buffers are not freed otherwise.
+     * Guis stay retained, and their geometry is captured again the next time they are rendered.
+     */
+    public void releaseRetained() {
+        if (retainedGeometry != null) {
+            retainedGeometry.close();
+            retainedGeometry = null;
+        }
+        for (Gui child : children)
+            child.releaseRetained();
+    }
+
+    /**
+     * Marks the layout and the look of this gui as changed.
+     */
+    public void markDirty() {
+        markDirty(DIRTY_LAYOUT | DIRTY_PAINT);
+    }
+
+    /**
+     * Marks the position, size, visibility or children of this gui as changed. This also changes how it looks.
+     */
+    public void markLayoutDirty() {
+        markDirty(DIRTY_LAYOUT | DIRTY_PAINT);
+    }
+
+    /**
+     * Marks how this gui looks as changed, without its layout having changed.
+     */
+    public void markPaintDirty() {
+        markDirty(DIRTY_PAINT);
+    }
+
+    /**
+     * Sets the given dirty flags on this gui, and marks every parent with {@link #DIRTY_SUBTREE}. The change is
+     * recorded as having happened in the current frame.
+     *
+     * @param flags - The dirty flags to set.
+     */
+    protected void markDirty(int flags) {
+        var frame = GuiUtil.getFrame();
+        dirtyFlags |= flags;
+        changeVersion = frame;
+        for (var p = parentGui; p != null; p = p.parentGui) {
+            // the parents above have already been marked during this frame.
+            if ((p.dirtyFlags & DIRTY_SUBTREE) != 0 && p.changeVersion == frame) break;
+            p.dirtyFlags |= DIRTY_SUBTREE;
+            p.changeVersion = frame;
+        }
+    }
+
+    /**
+     * Gets the dirty flags of this gui.
+     *
+     * @return The dirty flags, see {@link #DIRTY_LAYOUT}, {@link #DIRTY_PAINT} and {@link #DIRTY_SUBTREE}.
+     */
+    public int getDirtyFlags() {
+        return dirtyFlags;
+    }
+
+    /**
+     * Whether the layout of this gui has changed since it was last rendered.
+     *
+     * @return True if {@link #DIRTY_LAYOUT} is set.
+     */
+    public boolean isLayoutDirty() {
+        return (dirtyFlags & DIRTY_LAYOUT) != 0;
+    }
+
+    /**
+     * Whether the look of this gui has changed since it was last rendered.
+     *
+     * @return True if {@link #DIRTY_PAINT} is set.
+     */
+    public boolean isPaintDirty() {
+        return (dirtyFlags & DIRTY_PAINT) != 0;
+    }
+
+    /**
+     * Whether any of the children of this gui, at any depth, has changed since it was last rendered.
+     *
+     * @return True if {@link #DIRTY_SUBTREE} is set.
+     */
+    public boolean isSubtreeDirty() {
+        return (dirtyFlags & DIRTY_SUBTREE) != 0;
+    }
+
+    /**
+     * Clears the dirty flags of this gui. The flags of its children are left alone. This is done by
+     * {@link #endRender()}, so it only needs to be called by guis that are drawn in another way.
+     */
+    public void clearDirty() {
+        dirtyFlags = 0;
+    }
+
+    /**
+     * Gets the frame in which this gui, or any of its children, last changed. Something derived from this gui during
+     * frame {@code n} is still up-to-date as long as this is less than {@code n}. See {@link GuiUtil#getFrame()}.
+     *
+     * @return The frame of the last change.
+     */
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    /**
+     * Updates whether the mouse is over this gui, marking it as changed when that differs from the last render.
+     *
+     * @param hovered - Whether the mouse is over this gui.
+     * @return Whether the mouse is over this gui.
+     */
+    protected boolean updateHovered(boolean hovered) {
+        if (this.hovered != hovered)
+            markPaintDirty();
+        this.hovered = hovered;
+        return hovered;
     }
 
     /**
@@ -436,7 +790,7 @@ public class Gui {
      */
     private void drawSymbol(DrawContext drawContext, TextRenderer tr, Color color) {
         if (symbol != '\0')
-            drawText(drawContext, tr, Text.of(String.valueOf(symbol)), getX2() - 9f, getY() + 1.5f, color, false);
+            GuiUtil.drawText(tr, Symbols.get(symbol).getText(), getX2() - 9f, getY() + 1.5f, color, false, drawContext.getMatrices());
     }
 
     /**
@@ -450,8 +804,10 @@ public class Gui {
      */
     private void renderChildren(DrawContext drawContext, TextRenderer tr, int mouseX, int mouseY, float delta) {
         if (!hasChildren()) return;
-        for (Gui c : children)
+        for (Gui c : children) {
+            adopt(c);
             c.render(drawContext, tr, mouseX, mouseY, delta);
+        }
     }
 
     /**
@@ -522,6 +878,7 @@ public class Gui {
      */
     public void resetPosition() {
         box = BoxF.copy(defaultPosition);
+        markLayoutDirty();
     }
 
     /**
@@ -539,7 +896,19 @@ public class Gui {
      * @param position - The point to set the top left corner of the gui element to.
      */
     public void setPosition(PointF position) {
-        box.setTopLeft(position);
+        setPosition(position.x(), position.y());
+    }
+
+    /**
+     * Sets the top left corner of the gui element to the given coordinates.
+     *
+     * @param x - The x coordinate to set the top left corner of the gui element to.
+     * @param y - The y coordinate to set the top left corner of the gui element to.
+     */
+    public void setPosition(float x, float y) {
+        if (x == box.getX1() && y == box.getY1()) return;
+        box.moveTo(x, y);
+        markLayoutDirty();
     }
 
     /**
@@ -548,7 +917,11 @@ public class Gui {
      * @param position - The point to set the middle of the gui element to.
      */
     public void setMidPoint(PointF position) {
+        var oldX = box.getX1();
+        var oldY = box.getY1();
         box.setMiddle(position);
+        if (oldX != box.getX1() || oldY != box.getY1())
+            markLayoutDirty();
     }
 
     /**
@@ -611,7 +984,11 @@ public class Gui {
 
     //NOTE: I wrote this so that I don't have to deal with the API in drawContext and I can just use the textRenderer directly.
     protected void drawText(DrawContext drawContext, TextRenderer textRenderer, Text text, float x, float y, Color color, boolean shadow) {
-        textRenderer.draw(text, x, y, color.getAsInt(), shadow, drawContext.getMatrices().peek().getPositionMatrix(), drawContext.getVertexConsumers(), TextRenderer.TextLayerType.NORMAL, 0, 15728880);
+        GuiUtil.drawText(textRenderer, text, x, y, color, shadow, drawContext.getMatrices());
+    }
+
+    protected void drawText(DrawContext drawContext, TextRenderer textRenderer, OrderedText text, float x, float y, Color color) {
+        GuiUtil.drawText(textRenderer, text, x, y, color, false, drawContext.getMatrices());
     }
 
     protected void drawText(DrawContext drawContext, TextRenderer textRenderer, String text, float x, float y, Color color) {
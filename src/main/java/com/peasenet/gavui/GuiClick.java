@@ -84,7 +84,7 @@ public class GuiClick extends Gui {
         if (button != 0) return false;
         // check if mouseX and mouseY are within the bounds of the gui.
         var inGui = mouseWithinGui(mouseX, mouseY) && !isHidden();
-        if (inGui && GavUISettings.getBool("gui.sound"))
+        if (inGui && GavUISettings.getBool(GavUISettings.SOUND))
             MinecraftClient.getInstance().player.playSound(SoundEvents.UI_BUTTON_CLICK.value(), 0.5f, 1);
         if (inGui && !isHidden()) {
             if (onClick != null)
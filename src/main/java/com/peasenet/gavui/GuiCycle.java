@@ -73,7 +73,7 @@ public class GuiCycle extends GuiClick {
             currentIndex = (currentIndex + increment);
             // y is modulo not working
             currentIndex = currentIndex % cycleSize;
-            if (GavUISettings.getBool("gui.sound")) {
+            if (GavUISettings.getBool(GavUISettings.SOUND)) {
                 MinecraftClient.getInstance().player.playSound(SoundEvents.UI_BUTTON_CLICK.value(), 1.0F, 1.0F);
             }
             if (onClick != null)
@@ -23,6 +23,8 @@ package com.peasenet.gavui;
 
 import com.peasenet.gavui.math.PointF;
 import com.peasenet.gavui.util.GavUISettings;
+import com.peasenet.gavui.util.RenderStats;
+import com.peasenet.gavui.util.Symbols;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
@@ -75,27 +77,40 @@ public class GuiDropdown extends GuiDraggable {
     }
 
     public void setOpen(boolean open) {
+        if (isOpen != open)
+            markLayoutDirty();
         isOpen = open;
     }
 
     @Override
     public void render(DrawContext drawContext, TextRenderer tr, int mouseX, int mouseY, float delta) {
+        if (isHidden()) {
+            RenderStats.increment(RenderStats.Counter.WIDGETS_HIDDEN);
+            return;
+        }
+        beginRender(drawContext);
         updateSymbol();
-        var textColor = frozen() ? GavUISettings.getColor("gui.color.frozen") : GavUISettings.getColor("gui.color.foreground");
-        drawText(drawContext, tr, String.valueOf(symbol), getX2() + symbolOffsetX, getY() + symbolOffsetY, textColor);
+        var textColor = frozen() ? GavUI.frozenColor() : GavUI.textColor();
+        if (symbol != ' ')
+            drawText(drawContext, tr, Symbols.get(symbol).getText(), getX2() + symbolOffsetX, getY() + symbolOffsetY, textColor);
         super.render(drawContext, tr, mouseX, mouseY, delta);
-        if (!isOpen()) return;
+        if (!isOpen()) {
+            endRender();
+            return;
+        }
         var toRender = children.stream().filter(child -> !child.isHidden());
         // convert toRender to ArrayList
         var toRenderList = new ArrayList<>(toRender.toList());
         for (int i = 0; i < toRenderList.size(); i++) {
             var child = toRenderList.get(i);
+            adopt(child);
             switch (getDirection()) {
-                case DOWN -> child.setPosition(new PointF(getX(), getY2() + 2 + (i * 12)));
-                case RIGHT -> child.setPosition(new PointF(getX2() + 8, getY() + (i * 12)));
+                case DOWN -> child.setPosition(getX(), getY2() + 2 + (i * 12));
+                case RIGHT -> child.setPosition(getX2() + 8, getY() + (i * 12));
             }
             child.render(drawContext, tr, mouseX, mouseY, delta);
         }
+        endRender();
     }
 
     @Override
@@ -138,8 +153,8 @@ public class GuiDropdown extends GuiDraggable {
      * Toggles the dropdown.
      */
     protected void toggleMenu() {
-        isOpen = !isOpen;
-        if (GavUISettings.getBool("gui.sound")) {
+        setOpen(!isOpen);
+        if (GavUISettings.getBool(GavUISettings.SOUND)) {
             if (isOpen) MinecraftClient.getInstance().player.playSound(SoundEvents.BLOCK_CHEST_OPEN, 0.5f, 1);
             else MinecraftClient.getInstance().player.playSound(SoundEvents.BLOCK_CHEST_CLOSE, 0.5f, 1);
         }
@@ -159,7 +174,7 @@ public class GuiDropdown extends GuiDraggable {
                     return true;
                 }
             }
-            isOpen = false;
+            setOpen(false);
             children.forEach(Gui::hide);
             resetDropdownsLocation();
             return true;
@@ -171,7 +186,7 @@ public class GuiDropdown extends GuiDraggable {
     public void resetPosition() {
         super.resetPosition();
         resetDropdownsLocation();
-        isOpen = false;
+        setOpen(false);
     }
 
     /**
@@ -181,7 +196,7 @@ public class GuiDropdown extends GuiDraggable {
         // copy buttons to a new array
         for (Gui element : children) {
             if (getDirection() == Direction.RIGHT) {
-                element.setPosition(new PointF(getX2() + 12, getY2() + (children.size()) * 12));
+                element.setPosition(getX2() + 12, getY2() + (children.size()) * 12);
             }
         }
 
@@ -202,14 +217,16 @@ public class GuiDropdown extends GuiDraggable {
      * @param direction - The direction.
      */
     public void setDirection(Direction direction) {
+        if (this.direction != direction)
+            markLayoutDirty();
         this.direction = direction;
     }
 
     @Override
     public void addElement(Gui element) {
-        children.add(element);
+        addChild(element);
         if (getDirection() == Direction.RIGHT) {
-            element.setPosition(new PointF(getX2() + 12, getY2() + (children.size()) * 12));
+            element.setPosition(getX2() + 12, getY2() + (children.size()) * 12);
         }
         element.setWidth(getWidth());
     }
@@ -224,11 +241,11 @@ public class GuiDropdown extends GuiDraggable {
         if (!isOpen()) {
             switch (getDirection()) {
                 case RIGHT -> {
-                    symbol = '\u25B6';
+                    symbol = Symbols.ARROW_RIGHT;
                     symbolOffsetX = -8;
                 }
                 case DOWN -> {
-                    symbol = '\u25BC';
+                    symbol = Symbols.ARROW_DOWN;
                     symbolOffsetY = 3;
                     symbolOffsetX = -8;
                 }
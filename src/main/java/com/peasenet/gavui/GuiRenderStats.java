@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui;
+
+import com.peasenet.gavui.util.RenderStats;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.text.Text;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A debug panel that shows the statistics collected by {@link RenderStats}. It is a dropdown with one row per counter,
+ * showing the value of the last frame and the average per frame over the last second. The rows are only updated once
+ * per second. Statistics are collected while the panel is open, see {@link RenderStats#setEnabled(boolean)}.
+ */
+public class GuiRenderStats extends GuiDropdown {
+
+    /**
+     * The labels of the counters, in the order of {@link RenderStats.Counter}.
+     */
+    private static final String[] LABELS = {"Boxes", "Outlines", "Lines", "Text", "Vertices", "State changes", "Widgets", "Hidden"};
+
+    /**
+     * The row showing the number of frames per second.
+     */
+    private final Gui framesRow;
+
+    /**
+     * The rows showing the counters, in the order of {@link RenderStats.Counter}.
+     */
+    private final Gui[] counterRows = new Gui[LABELS.length];
+
+    /**
+     * The version of the per second statistics the rows were last updated with.
+     */
+    private int shownVersion = -1;
+
+    /**
+     * Creates a new render statistics panel.
+     *
+     * @param builder - The builder of the panel. Its width is used for every row.
+     */
+    public GuiRenderStats(GuiBuilder builder) {
+        super(builder);
+        framesRow = createRow(builder);
+        for (int i = 0; i < counterRows.length; i++)
+            counterRows[i] = createRow(builder);
+    }
+
+    /**
+     * Opens or closes the panel, collecting statistics only while it is open.
+     *
+     * @param open - Whether the panel is open.
+     */
+    @Override
+    public void setOpen(boolean open) {
+        if (open != isOpen())
+            RenderStats.setEnabled(open);
+        super.setOpen(open);
+    }
+
+    @Override
+    public void render(DrawContext drawContext, TextRenderer tr, int mouseX, int mouseY, float delta) {
+        if (isOpen() && shownVersion != RenderStats.getSecondVersion())
+            updateRows();
+        super.render(drawContext, tr, mouseX, mouseY, delta);
+    }
+
+    /**
+     * Updates the titles of the rows with the latest statistics.
+     */
+    private void updateRows() {
+        shownVersion = RenderStats.getSecondVersion();
+        framesRow.setTitle(Text.literal("Frames: " + RenderStats.getFramesPerSecond() + "/s"));
+        var counters = RenderStats.Counter.values();
+        for (int i = 0; i < counterRows.length; i++) {
+            var counter = counters[i];
+            counterRows[i].setTitle(Text.literal(LABELS[i] + ": " + RenderStats.getLastFrame(counter) + " (avg "
+                    + Math.round(RenderStats.getAveragePerFrame(counter)) + ")"));
+        }
+    }
+
+    /**
+     * Creates a row and adds it to this panel.
+     *
+     * @param builder - The builder of the panel.
+     * @return The new row.
+     */
+    private Gui createRow(GuiBuilder builder) {
+        var row = new GuiBuilder()
+                .setWidth(builder.getWidth())
+                .setHeight(10)
+                .setTitle(Text.literal(""))
+                .setHoverable(false)
+                .build();
+        addElement(row);
+        if (!isOpen())
+            row.hide();
+        return row;
+    }
+}
@@ -22,9 +22,12 @@ package com.peasenet.gavui;
 
 import com.peasenet.gavui.color.Color;
 import com.peasenet.gavui.color.Colors;
+import com.peasenet.gavui.color.ContrastResolver;
 import com.peasenet.gavui.math.BoxF;
 import com.peasenet.gavui.math.PointF;
 import com.peasenet.gavui.util.GuiUtil;
+import com.peasenet.gavui.util.RenderStats;
+import com.peasenet.gavui.util.Symbols;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.util.math.MatrixStack;
@@ -56,6 +59,11 @@ public class GuiScroll extends GuiDropdown {
      */
     private int page;
 
+    /**
+     * The box of the scroll box and scrollbar, moved in place on every render.
+     */
+    private final BoxF scrollBox = new BoxF(0, 0, 0, 0);
+
     /**
      * Creates a new scroll like UI element.
      *
@@ -70,9 +78,9 @@ public class GuiScroll extends GuiDropdown {
         super(position, width, height, title);
         for (Gui gui : children) {
             gui.setWidth(getWidth());
-            this.children.add(gui);
+            addChild(gui);
             if (getDirection() == Direction.RIGHT)
-                gui.setPosition(new PointF(getX2() + 14, getY2() + (this.children.size()) * 12));
+                gui.setPosition(getX2() + 14, getY2() + (this.children.size()) * 12);
         }
         this.defaultMaxChildren = maxChildren;
         this.maxChildren = maxChildren;
@@ -112,9 +120,9 @@ public class GuiScroll extends GuiDropdown {
         super(builder);
         for (Gui gui : builder.getChildren()) {
             gui.setWidth(getWidth());
-            this.children.add(gui);
+            addChild(gui);
             if (getDirection() == Direction.RIGHT)
-                gui.setPosition(new PointF(getX2() + 14, getY2() + (this.children.size()) * 12));
+                gui.setPosition(getX2() + 14, getY2() + (this.children.size()) * 12);
         }
         this.setDirection(builder.getDirection());
         this.defaultMaxChildren = builder.getDefaultMaxChildren();
@@ -126,7 +134,11 @@ public class GuiScroll extends GuiDropdown {
 
     @Override
     public void render(DrawContext drawContext, TextRenderer tr, int mouseX, int mouseY, float delta) {
-        if (isHidden()) return;
+        if (isHidden()) {
+            RenderStats.increment(RenderStats.Counter.WIDGETS_HIDDEN);
+            return;
+        }
+        beginRender(drawContext);
         var bg = getBackgroundColor();
 
         if (isParent())
@@ -134,37 +146,36 @@ public class GuiScroll extends GuiDropdown {
         else
             bg = GavUI.backgroundColor();
         var childHasMouse = children.stream().anyMatch(gui -> gui.mouseWithinGui(mouseX, mouseY));
-        if (mouseWithinGui(mouseX, mouseY) && !childHasMouse) {
+        if (updateHovered(mouseWithinGui(mouseX, mouseY) && !childHasMouse)) {
             bg = bg.brighten(0.5f);
         }
         GuiUtil.drawBox(bg, getBox(), drawContext.getMatrices(), GavUI.getAlpha());
         var textColor = frozen() ? GavUI.frozenColor() : GavUI.textColor();
-        //TODO: Color similarity
         if (title != null) {
-            if (textColor.similarity(bg) < 0.2f) {
-                textColor = textColor.invert();
-                if (textColor.similarity(bg) < 0.2f)
-                    textColor = Colors.WHITE;
-            }
+            textColor = ContrastResolver.resolve(textColor, bg, 0.2f);
+            drawText(drawContext, tr, getTitleEntry().getOrderedText(), getX() + 2, getY() + 1.5f, textColor);
         }
-        drawText(drawContext, tr, title, getX() + 2, getY() + 1.5f, textColor);
         renderSymbol(drawContext, tr, textColor);
         if (getDrawBorder())
             GuiUtil.drawOutline(GavUI.borderColor(), getBox(), drawContext.getMatrices());
-        if (!isOpen()) return;
-        resetChildPos();
+        if (isOpen()) {
+            resetChildPos();
 
-        if (page < 0) page = 0;
-        if (page >= numPages) page = numPages - 1;
+            if (page < 0) setPage(0);
+            if (page >= numPages) setPage(numPages - 1);
 
-        for (int i = 0; i < children.size(); i++)
-            renderChildren(drawContext, tr, mouseX, mouseY, delta, i);
+            for (int i = 0; i < children.size(); i++)
+                renderChildren(drawContext, tr, mouseX, mouseY, delta, i);
+        }
+        endRender();
     }
 
     private void renderSymbol(DrawContext drawContext, TextRenderer tr, Color textColor) {
         updateSymbol();
 
-        var s = String.valueOf(symbol);
+        if (symbol == ' ')
+            return;
+        var s = Symbols.get(symbol).getText();
         var x = getX2() + symbolOffsetX;
         var y = getY() + symbolOffsetY;
 
@@ -178,6 +189,7 @@ public class GuiScroll extends GuiDropdown {
 
     private void renderChildren(DrawContext drawContext, TextRenderer tr, int mouseX, int mouseY, float delta, int i) {
         var child = children.get(i);
+        adopt(child);
         var matrixStack = drawContext.getMatrices();
         if (i < page * maxChildren || i >= (page + 1) * maxChildren) {
             child.hide();
@@ -234,8 +246,8 @@ public class GuiScroll extends GuiDropdown {
             var gui = children.get(i);
             if (gui instanceof GuiDraggable) ((GuiScroll) gui).resetChildPos();
             switch (getDirection()) {
-                case DOWN -> gui.setPosition(new PointF(getX(), getY2() + 2 + (modIndex * 12)));
-                case RIGHT -> gui.setPosition(new PointF(getX2() + 7, getY() + (modIndex * 12)));
+                case DOWN -> gui.setPosition(getX(), getY2() + 2 + (modIndex * 12));
+                case RIGHT -> gui.setPosition(getX2() + 7, getY() + (modIndex * 12));
             }
             modIndex++;
         }
@@ -245,14 +257,25 @@ public class GuiScroll extends GuiDropdown {
      * Scrolls the page "up" by one.
      */
     protected void scrollUp() {
-        if (page > 0) page--;
+        if (page > 0) setPage(page - 1);
     }
 
     /**
      * Scrolls the page "down" by one.
      */
     protected void scrollDown() {
-        if (page < numPages - 1) page++;
+        if (page < numPages - 1) setPage(page + 1);
+    }
+
+    /**
+     * Sets the current page.
+     *
+     * @param page - The new page.
+     */
+    private void setPage(int page) {
+        if (this.page != page)
+            markLayoutDirty();
+        this.page = page;
     }
 
     /**
@@ -277,9 +300,10 @@ public class GuiScroll extends GuiDropdown {
             scrollBoxX = children.get(page * maxChildren).getX2() + 1;
             scrollBoxY = getY();
         }
-        var box = new BoxF(new PointF(scrollBoxX, scrollBoxY), 5, scrollBoxHeight);
-        GuiUtil.drawBox(GavUI.backgroundColor(), box, matrixStack, GavUI.getAlpha());
-        GuiUtil.drawOutline(GavUI.borderColor(), box, matrixStack);
+        scrollBox.resize(5, scrollBoxHeight);
+        scrollBox.moveTo(scrollBoxX, scrollBoxY);
+        GuiUtil.drawBox(GavUI.backgroundColor(), scrollBox, matrixStack, GavUI.getAlpha());
+        GuiUtil.drawOutline(GavUI.borderColor(), scrollBox, matrixStack);
     }
 
     /**
@@ -298,8 +322,9 @@ public class GuiScroll extends GuiDropdown {
             scrollBarX = children.get(page * maxChildren).getX2() + 2;
             scrollBarY2 = ((scrollBarY) + (scrollBoxHeight / (numPages)));
         }
-        var box = new BoxF(new PointF(scrollBarX, scrollBarY), 3, scrollBarY2 - scrollBarY - 2f);
-        GuiUtil.drawBox(Colors.WHITE, box, matrixStack);
+        scrollBox.resize(3, scrollBarY2 - scrollBarY - 2f);
+        scrollBox.moveTo(scrollBarX, scrollBarY);
+        GuiUtil.drawBox(Colors.WHITE, scrollBox, matrixStack);
     }
 
     /**
@@ -315,9 +340,9 @@ public class GuiScroll extends GuiDropdown {
     @Override
     public void addElement(Gui gui) {
         gui.setWidth(getWidth());
-        children.add(gui);
+        addChild(gui);
         if (getDirection() == Direction.RIGHT)
-            gui.setPosition(new PointF(getX2() + 14, getY2() + (children.size()) * 12));
+            gui.setPosition(getX2() + 14, getY2() + (children.size()) * 12);
 
         maxChildren = Math.min(children.size(), defaultMaxChildren);
         numPages = (int) Math.ceil((double) children.size() / (double) maxChildren);
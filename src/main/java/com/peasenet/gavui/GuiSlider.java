@@ -24,6 +24,7 @@ import com.peasenet.gavui.color.Colors;
 import com.peasenet.gavui.math.BoxF;
 import com.peasenet.gavui.math.PointF;
 import com.peasenet.gavui.util.GuiUtil;
+import com.peasenet.gavui.util.RenderStats;
 import com.peasenet.gavui.util.callbacks.GuiCallback;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
@@ -47,6 +48,11 @@ public class GuiSlider extends Gui {
      */
     float value;
 
+    /**
+     * The box of the tick mark, moved in place on every render.
+     */
+    private final BoxF tickMark = new BoxF(0, 0, 0, 0);
+
     /**
      * Creates a new GUI menu.
      *
@@ -90,6 +96,8 @@ public class GuiSlider extends Gui {
      * @param value - The value to set the slider to.
      */
     public void setValue(float value) {
+        if (this.value != value)
+            markPaintDirty();
         this.value = value;
     }
 
@@ -99,19 +107,24 @@ public class GuiSlider extends Gui {
      * @param mouseX - The x position of the mouse.
      */
     private void setValue(double mouseX) {
-        value = (float) ((mouseX - getX()) / (getWidth() - 2));
-        value = Math.max(0, Math.min(1, value));
+        var newValue = (float) ((mouseX - getX()) / (getWidth() - 2));
+        newValue = Math.max(0, Math.min(1, newValue));
         // round to 2 decimal places
-        value = Math.round(value * 100) / 100f;
+        setValue(Math.round(newValue * 100) / 100f);
         if (callback != null)
             callback.callback();
     }
 
     @Override
     public void render(DrawContext drawContext, TextRenderer tr, int mouseX, int mouseY, float delta) {
+        if (isHidden()) {
+            RenderStats.increment(RenderStats.Counter.WIDGETS_HIDDEN);
+            return;
+        }
+        beginRender(drawContext);
         super.render(drawContext, tr, mouseX, mouseY, delta);
-        if (!isHidden())
-            drawTickMark(drawContext);
+        drawTickMark(drawContext);
+        endRender();
     }
 
     @Override
@@ -147,7 +160,8 @@ public class GuiSlider extends Gui {
      * @param drawContext - The draw matrix to draw on.
      */
     private void drawTickMark(DrawContext drawContext) {
-        var box = new BoxF(new PointF(((getX()) + ((getWidth() - 1) * value)), getY()), 1, getHeight());
-        GuiUtil.drawBox(Colors.WHITE, box, drawContext.getMatrices(), 0.75f);
+        tickMark.resize(1, getHeight());
+        tickMark.moveTo((getX()) + ((getWidth() - 1) * value), getY());
+        GuiUtil.drawBox(Colors.WHITE, tickMark, drawContext.getMatrices(), 0.75f);
     }
 }
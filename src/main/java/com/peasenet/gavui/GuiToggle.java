@@ -21,6 +21,8 @@
 package com.peasenet.gavui;
 
 import com.peasenet.gavui.math.PointF;
+import com.peasenet.gavui.util.RenderStats;
+import com.peasenet.gavui.util.Symbols;
 import com.peasenet.gavui.util.callbacks.GuiCallback;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
@@ -116,9 +118,11 @@ public class GuiToggle extends GuiClick {
 
     @Override
     public void render(DrawContext drawContext, TextRenderer tr, int mouseX, int mouseY, float delta) {
-        if (isHidden())
+        if (isHidden()) {
+            RenderStats.increment(RenderStats.Counter.WIDGETS_HIDDEN);
             return;
-        symbol = isOn ? '\u2611' : '\u2610';
+        }
+        setSymbol(isOn ? Symbols.CHECKED : Symbols.UNCHECKED);
         if (renderCallback != null)
             renderCallback.callback();
         if (isOn()) setBackground(GavUI.enabledColor());
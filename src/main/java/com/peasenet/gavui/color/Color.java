@@ -44,6 +44,39 @@ public class Color implements Serializable {
      */
     private final int blue;
 
+    /**
+     * The number of brightened variants that are remembered per color.
+     */
+    private static final int BRIGHTENED_CACHE_SIZE = 4;
+
+    /**
+     * This color packed as an opaque ARGB int, or 0 if it was not packed yet. An opaque color is never 0. Transient so
+     * it is never saved.
+     */
+    private transient int argb;
+
+    /**
+     * The red, green and blue channels of this color between 0 and 1, computed the first time they are needed.
+     * Transient so they are never saved.
+     */
+    private transient Channels channels;
+
+    /**
+     * The inverse of this color, computed the first time it is needed. Transient so it is never saved.
+     */
+    private transient Color inverted;
+
+    /**
+     * The brightened variants of this color that were computed so far, see {@link #brighten(float)}. Transient so they
+     * are never saved.
+     */
+    private transient Brightened[] brightened;
+
+    /**
+     * The index in {@link #brightened} the next new variant is stored at.
+     */
+    private transient int nextBrightened;
+
     /**
      * Creates a new RGBA color. Must be between 0 and 255.
      *
@@ -74,7 +107,7 @@ public class Color implements Serializable {
      * @return red value
      */
     public float getRed() {
-        return red / 255f;
+        return getChannels().red();
     }
 
     /**
@@ -83,7 +116,7 @@ public class Color implements Serializable {
      * @return green value
      */
     public float getGreen() {
-        return green / 255f;
+        return getChannels().green();
     }
 
     /**
@@ -92,7 +125,7 @@ public class Color implements Serializable {
      * @return blue value
      */
     public float getBlue() {
-        return blue / 255f;
+        return getChannels().blue();
     }
 
     /**
@@ -101,7 +134,51 @@ public class Color implements Serializable {
      * @return float array of color values
      */
     public float[] getAsFloatArray() {
-        return new float[]{getRed(), getGreen(), getBlue(), 1};
+        var c = getChannels();
+        return new float[]{c.red(), c.green(), c.blue(), 1};
+    }
+
+    /**
+     * Copies the float values of this color into the given array, without allocating. Values range from 0 to 1.
+     *
+     * @param out - The array to write red, green, blue and an alpha of 1 to. Must have a length of at least 4.
+     * @return The given array.
+     */
+    public float[] getAsFloatArray(float[] out) {
+        var c = getChannels();
+        out[0] = c.red();
+        out[1] = c.green();
+        out[2] = c.blue();
+        out[3] = 1;
+        return out;
+    }
+
+    /**
+     * Gets this color packed as an opaque ARGB int, for use with {@link PackedColor}. The value is computed once.
+     *
+     * @return The packed color, with an alpha of 255.
+     */
+    public int getArgb() {
+        var packed = argb;
+        if (packed == 0) {
+            packed = 0xFF000000 | (red << 16) | (green << 8) | blue;
+            argb = packed;
+        }
+        return packed;
+    }
+
+    /**
+     * Gets the cached float channels of this color.
+     *
+     * @return The red, green and blue channels, between 0 and 1.
+     */
+    private Channels getChannels() {
+        var c = channels;
+        if (c == null) {
+            c = new Channels(red / 255f, green / 255f, blue / 255f);
+            channels = c;
+        }
+        return c;
     }
 
     /**
@@ -124,7 +201,7 @@ public class Color implements Serializable {
             alpha = alpha / 255f;
         if (alpha < 0)
             alpha = 1;
-        return (int) (alpha * 255) << 24 | (red << 16) | (green << 8) | blue;
+        return PackedColor.withAlpha(getArgb(), alpha);
     }
 
     /**
@@ -137,50 +214,55 @@ public class Color implements Serializable {
         return red == other.red && green == other.green && blue == other.blue;
     }
 
+    /**
+     * Gets a brighter variant of this color, or a darker one if this color is too bright already. Variants are computed
+     * once per amount and reused, so brightening a color by the same amount again does not allocate.
+     *
+     * @param amount - The amount to brighten by, between 0 and 1.
+     * @return The brightened color.
+     */
     public Color brighten(float amount) {
         if (amount < 0)
             amount = 0;
         if (amount > 1)
             amount = 1;
-        var newR = red + (int) (amount * 255);
-        var newG = green + (int) (amount * 255);
-        var newB = blue + (int) (amount * 255);
-        if (newR > 255)
-            newR = 255;
-        if (newG > 255)
-            newG = 255;
-        if (newB > 255)
-            newB = 255;
-        // check if the color is too bright, if so, darken it
-        if (newR + newG + newB > 255 * 3) {
-            newR = red - (int) (amount * 255);
-            newG = green - (int) (amount * 255);
-            newB = blue - (int) (amount * 255);
+        var cache = brightened;
+        if (cache == null) {
+            cache = new Brightened[BRIGHTENED_CACHE_SIZE];
+            brightened = cache;
         }
-        // check if the color is the same. if so, return a new color that is closer to white
-        if (newR == red) {
-            newG += (int) (amount * 255);
-            newB += blue + (int) (amount * 255);
-            return new Color(newR, newG, newB);
-
-        }
-        if (newG == green) {
-            newR += red + (int) (amount * 255);
-            newB += blue + (int) (amount * 255);
-            return new Color(newR, newG, newB);
-
+        for (var entry : cache) {
+            if (entry != null && entry.amount == amount)
+                return entry.color;
         }
-        if (newB == blue) {
-            newR += red + (int) (amount * 255);
-            newG += green + (int) (amount * 255);
-            return new Color(newR, newG, newB);
+        var color = computeBrighten(amount);
+        cache[nextBrightened] = new Brightened(amount, color);
+        nextBrightened = (nextBrightened + 1) % BRIGHTENED_CACHE_SIZE;
+        return color;
+    }
 
-        }
-        return new Color(newR, newG, newB);
+    /**
+     * Computes a brightened variant of this color, see {@link #brighten(float)}.
+     *
+     * @param amount - The amount to brighten by, between 0 and 1.
+     * @return The brightened color.
+     */
+    private Color computeBrighten(float amount) {
+        return fromInt(PackedColor.brighten(getArgb(), amount));
     }
 
+    /**
+     * Gets the inverse of this color. It is computed once and reused.
+     *
+     * @return The inverted color.
+     */
     public Color invert() {
-        return new Color(255 - red, 255 - green, 255 - blue);
+        var result = inverted;
+        if (result == null) {
+            result = new Color(255 - red, 255 - green, 255 - blue);
+            inverted = result;
+        }
+        return result;
     }
 
     /**
@@ -202,4 +284,23 @@ public class Color implements Serializable {
         var similarity = (r + g + b) / (255f * 3f);
         return similarity;
     }
+
+    /**
+     * A brightened variant of a color, and the amount it was brightened by.
+     *
+     * @param amount - The amount the color was brightened by.
+     * @param color  - The brightened color.
+     */
+    private record Brightened(float amount, Color color) {
+    }
+
+    /**
+     * The color channels of a color, between 0 and 1.
+     *
+     * @param red   - The red channel.
+     * @param green - The green channel.
+     * @param blue  - The blue channel.
+     */
+    private record Channels(float red, float green, float blue) {
+    }
 }
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.color;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Lookup table based math on packed ARGB colors, for fades and gradients that run on every frame or every vertex.
+ * Channel products and gamma conversions are read from tables built once when the class loads, and interpolation uses
+ * 8-bit fixed point weights, so none of the methods allocate or touch floating point per channel.
+ * See {@link PackedColor} for the packing and the simpler helpers, which use this class for blending and
+ * interpolation, so both give the same colors.
+ */
+public class ColorMath {
+
+    /**
+     * The number of bits of a channel in linear light. More than 8 bits are needed to keep dark colors distinct.
+     */
+    private static final int LINEAR_BITS = 12;
+
+    /**
+     * The largest value of a channel in linear light.
+     */
+    private static final int LINEAR_MAX = (1 << LINEAR_BITS) - 1;
+
+    /**
+     * The rounded product of every pair of 8-bit channels divided by 255, indexed by a << 8 | b.
+     */
+    private static final byte[] MULTIPLY = new byte[256 * 256];
+
+    /**
+     * The linear light value of every sRGB channel, between 0 and {@link #LINEAR_MAX}.
+     */
+    private static final short[] TO_LINEAR = new short[256];
+
+    /**
+     * The sRGB channel of every linear light value.
+     */
+    private static final byte[] TO_SRGB = new byte[LINEAR_MAX + 1];
+
+    static {
+        for (int a = 0; a < 256; a++)
+            for (int b = 0; b < 256; b++)
+                MULTIPLY[a << 8 | b] = (byte) ((a * b + 127) / 255);
+        for (int i = 0; i < 256; i++) {
+            var c = i / 255.0;
+            var linear = c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+            TO_LINEAR[i] = (short) Math.round(linear * LINEAR_MAX);
+        }
+        for (int i = 0; i <= LINEAR_MAX; i++) {
+            var linear = i / (double) LINEAR_MAX;
+            var c = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+            TO_SRGB[i] = (byte) Math.round(c * 255);
+        }
+    }
+
+    private ColorMath() {
+    }
+
+    /**
+     * Multiplies two 8-bit channels, treating 255 as 1.
+     *
+     * @param a - The first channel, between 0 and 255.
+     * @param b - The second channel, between 0 and 255.
+     * @return The product, between 0 and 255.
+     */
+    public static int multiply(int a, int b) {
+        return MULTIPLY[a << 8 | b] & 0xFF;
+    }
+
+    /**
+     * Multiplies every channel of two packed colors, tinting one by the other.
+     *
+     * @param a - The first packed color.
+     * @param b - The second packed color.
+     * @return The modulated color.
+     */
+    public static int modulate(int a, int b) {
+        return multiply(a >>> 24, b >>> 24) << 24
+                | multiply(a >> 16 & 0xFF, b >> 16 & 0xFF) << 16
+                | multiply(a >> 8 & 0xFF, b >> 8 & 0xFF) << 8
+                | multiply(a & 0xFF, b & 0xFF);
+    }
+
+    /**
+     * Scales the alpha channel of a packed color, for fading it in or out.
+     *
+     * @param argb  - The packed color.
+     * @param alpha - The scale of the alpha, between 0 and 255.
+     * @return The color with the scaled alpha.
+     */
+    public static int fade(int argb, int alpha) {
+        return multiply(argb >>> 24, alpha) << 24 | argb & 0xFFFFFF;
+    }
+
+    /**
+     * Blends a packed color over another, using the alpha of the source color. {@link PackedColor#blend(int, int)} uses
+     * this.
+     *
+     * @param source      - The color on top.
+     * @param destination - The color below.
+     * @return The blended color.
+     */
+    public static int blend(int source, int destination) {
+        var a = source >>> 24;
+        var inverse = 255 - a;
+        var alpha = a + multiply(destination >>> 24, inverse);
+        return alpha << 24
+                | multiply(source >> 16 & 0xFF, a) + multiply(destination >> 16 & 0xFF, inverse) << 16
+                | multiply(source >> 8 & 0xFF, a) + multiply(destination >> 8 & 0xFF, inverse) << 8
+                | multiply(source & 0xFF, a) + multiply(destination & 0xFF, inverse);
+    }
+
+    /**
+     * Converts an interpolation position to an 8-bit weight.
+     *
+     * @param t - The position, clamped to 0-1.
+     * @return The weight, between 0 and 255.
+     */
+    public static int weight(float t) {
+        if (t <= 0) return 0;
+        if (t >= 1) return 255;
+        return (int) (t * 255 + 0.5f);
+    }
+
+    /**
+     * Linearly interpolates between two packed colors, including their alpha. {@link PackedColor#lerp(int, int, float)}
+     * uses this.
+     *
+     * @param from - The color at t = 0.
+     * @param to   - The color at t = 1.
+     * @param t    - The position between the colors, clamped to 0-1.
+     * @return The interpolated color.
+     */
+    public static int lerp(int from, int to, float t) {
+        return lerp(from, to, weight(t));
+    }
+
+    /**
+     * Linearly interpolates between two packed colors with an 8-bit weight, see {@link #weight(float)}.
+     *
+     * @param from   - The color at weight 0.
+     * @param to     - The color at weight 255.
+     * @param weight - The weight of the second color, between 0 and 255.
+     * @return The interpolated color.
+     */
+    public static int lerp(int from, int to, int weight) {
+        var inverse = 255 - weight;
+        return lerpChannel(from >>> 24, to >>> 24, weight, inverse) << 24
+                | lerpChannel(from >> 16 & 0xFF, to >> 16 & 0xFF, weight, inverse) << 16
+                | lerpChannel(from >> 8 & 0xFF, to >> 8 & 0xFF, weight, inverse) << 8
+                | lerpChannel(from & 0xFF, to & 0xFF, weight, inverse);
+    }
+
+    /**
+     * Interpolates between two packed colors in linear light, which keeps the middle of a fade from looking darker than
+     * either end. The alpha is interpolated directly.
+     *
+     * @param from - The color at t = 0.
+     * @param to   - The color at t = 1.
+     * @param t    - The position between the colors, clamped to 0-1.
+     * @return The interpolated color.
+     */
+    public static int lerpGamma(int from, int to, float t) {
+        return lerpGamma(from, to, weight(t));
+    }
+
+    /**
+     * Interpolates between two packed colors in linear light with an 8-bit weight, see
+     * {@link #lerpGamma(int, int, float)}.
+     *
+     * @param from   - The color at weight 0.
+     * @param to     - The color at weight 255.
+     * @param weight - The weight of the second color, between 0 and 255.
+     * @return The interpolated color.
+     */
+    public static int lerpGamma(int from, int to, int weight) {
+        var inverse = 255 - weight;
+        return lerpChannel(from >>> 24, to >>> 24, weight, inverse) << 24
+                | lerpLinear(from >> 16 & 0xFF, to >> 16 & 0xFF, weight, inverse) << 16
+                | lerpLinear(from >> 8 & 0xFF, to >> 8 & 0xFF, weight, inverse) << 8
+                | lerpLinear(from & 0xFF, to & 0xFF, weight, inverse);
+    }
+
+    /**
+     * Converts an sRGB channel to linear light.
+     *
+     * @param channel - The sRGB channel, between 0 and 255.
+     * @return The linear light value, between 0 and 4095.
+     */
+    public static int toLinear(int channel) {
+        return TO_LINEAR[channel];
+    }
+
+    /**
+     * Converts a linear light value to an sRGB channel.
+     *
+     * @param linear - The linear light value, between 0 and 4095.
+     * @return The sRGB channel, between 0 and 255.
+     */
+    public static int toSrgb(int linear) {
+        return TO_SRGB[linear] & 0xFF;
+    }
+
+    /**
+     * Creates a gradient between two packed colors.
+     *
+     * @param from         - The first color of the gradient.
+     * @param to           - The last color of the gradient.
+     * @param steps        - The number of colors in the gradient.
+     * @param gammaCorrect - Whether to interpolate in linear light, see {@link #lerpGamma(int, int, float)}.
+     * @return The colors of the gradient.
+     */
+    public static int[] gradient(int from, int to, int steps, boolean gammaCorrect) {
+        var out = new int[steps];
+        gradient(from, to, out, gammaCorrect);
+        return out;
+    }
+
+    /**
+     * Fills an array with a gradient between two packed colors, without allocating. The first element is the first
+     * color and the last element is the last color.
+     *
+     * @param from         - The first color of the gradient.
+     * @param to           - The last color of the gradient.
+     * @param out          - The array to fill.
+     * @param gammaCorrect - Whether to interpolate in linear light, see {@link #lerpGamma(int, int, float)}.
+     */
+    public static void gradient(int from, int to, int[] out, boolean gammaCorrect) {
+        if (out.length == 0) return;
+        if (out.length == 1) {
+            out[0] = from;
+            return;
+        }
+        var last = out.length - 1;
+        for (int i = 0; i <= last; i++) {
+            var weight = (i * 255 + last / 2) / last;
+            out[i] = gammaCorrect ? lerpGamma(from, to, weight) : lerp(from, to, weight);
+        }
+    }
+
+    /**
+     * Interpolates a single 8-bit channel.
+     */
+    private static int lerpChannel(int from, int to, int weight, int inverse) {
+        return (from * inverse + to * weight + 127) / 255;
+    }
+
+    /**
+     * Interpolates a single channel in linear light.
+     */
+    private static int lerpLinear(int from, int to, int weight, int inverse) {
+        return toSrgb((toLinear(from) * inverse + toLinear(to) * weight + 127) / 255);
+    }
+}
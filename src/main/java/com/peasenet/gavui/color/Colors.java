@@ -20,8 +20,6 @@
 
 package com.peasenet.gavui.color;
 
-import java.util.Random;
-
 /**
  * @author gt3ch1
  * @version 7/1/2022
@@ -60,18 +58,13 @@ public class Colors {
     };
 
     /**
-     * Returns the color with the given index.
+     * Returns the index of the given color in the list of all colors. See {@link Palette#DEFAULT}.
      *
      * @param color - the index of the color to return
      * @return the color with the given index, -1 if the search failed.
      */
     public static int getColorIndex(Color color) {
-        for (int i = 0; i < COLORS.length; i++) {
-            if (COLORS[i].equals(color)) {
-                return i;
-            }
-        }
-        return -1;
+        return Palette.DEFAULT.indexOf(color);
     }
 
     /**
@@ -80,6 +73,6 @@ public class Colors {
      * @return A random color index.
      */
     public static int getRandomColor() {
-        return new Random(System.currentTimeMillis()).nextInt(COLORS.length);
+        return Palette.DEFAULT.randomIndex();
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.color;
+
+import java.util.Arrays;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Finds a readable text color for a background. If the text color is too similar to the background, its inverse is
+ * used, and if that is too similar as well, white is used.
+ * Results are memoized by the text color, background color and similarity threshold in a small open addressing table,
+ * so resolving a pair that was seen before does not allocate. The table is emptied with {@link #clear()} when the theme
+ * changes, and whenever it fills up.
+ */
+public class ContrastResolver {
+
+    /**
+     * The number of slots in the table. Must be a power of two.
+     */
+    private static final int CAPACITY = 512;
+
+    /**
+     * The table is emptied once it holds this many entries, to keep probe sequences short.
+     */
+    private static final int MAX_ENTRIES = CAPACITY / 2;
+
+    /**
+     * The text and background color of every entry, as packed RGB in the upper and lower 32 bits.
+     */
+    private static final long[] colorKeys = new long[CAPACITY];
+
+    /**
+     * The bits of the threshold of every entry.
+     */
+    private static final int[] thresholdKeys = new int[CAPACITY];
+
+    /**
+     * The resolved text color of every entry, or null if the slot is empty.
+     */
+    private static final Color[] results = new Color[CAPACITY];
+
+    /**
+     * The number of entries in the table.
+     */
+    private static int size = 0;
+
+    private ContrastResolver() {
+    }
+
+    /**
+     * Gets a readable text color for the given background.
+     *
+     * @param text       - The preferred text color.
+     * @param background - The background color.
+     * @param threshold  - The minimum {@link Color#similarity(Color)} the text needs to have to the background.
+     * @return The text color if it is readable, otherwise its inverse if that is readable, otherwise white.
+     */
+    public static synchronized Color resolve(Color text, Color background, float threshold) {
+        var colorKey = (long) text.getAsInt() << 32 | background.getAsInt();
+        var thresholdKey = Float.floatToIntBits(threshold);
+        var mask = CAPACITY - 1;
+        var i = hash(colorKey, thresholdKey) & mask;
+        while (results[i] != null) {
+            if (colorKeys[i] == colorKey && thresholdKeys[i] == thresholdKey)
+                return results[i];
+            i = (i + 1) & mask;
+        }
+        if (size >= MAX_ENTRIES) {
+            clear();
+            i = hash(colorKey, thresholdKey) & mask;
+        }
+        var result = compute(text, background, threshold);
+        colorKeys[i] = colorKey;
+        thresholdKeys[i] = thresholdKey;
+        results[i] = result;
+        size++;
+        return result;
+    }
+
+    /**
+     * Removes every memoized result.
+     */
+    public static synchronized void clear() {
+        Arrays.fill(results, null);
+        size = 0;
+    }
+
+    /**
+     * Computes a readable text color, see {@link #resolve(Color, Color, float)}.
+     */
+    private static Color compute(Color text, Color background, float threshold) {
+        var argb = text.getArgb();
+        var result = PackedColor.contrast(argb, background.getArgb(), threshold);
+        if (result == argb)
+            return text;
+        if (result == PackedColor.invert(argb))
+            return text.invert();
+        return Colors.WHITE;
+    }
+
+    /**
+     * Mixes the bits of a key into a table index.
+     */
+    private static int hash(long colorKey, int thresholdKey) {
+        var h = colorKey * 0x9E3779B97F4A7C15L + thresholdKey;
+        h ^= h >>> 32;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ h >>> 29);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.color;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Static helpers for colors packed into a single ARGB int, with the alpha in the highest byte and blue in the lowest.
+ * None of them allocate, so they can be used on every frame. See {@link Color#getArgb()} to get the packed value of a
+ * {@link Color}.
+ */
+public class PackedColor {
+
+    private PackedColor() {
+    }
+
+    /**
+     * Packs the given channels into an ARGB int. Every channel is clamped to 0-255.
+     *
+     * @param alpha - The alpha channel.
+     * @param red   - The red channel.
+     * @param green - The green channel.
+     * @param blue  - The blue channel.
+     * @return The packed color.
+     */
+    public static int argb(int alpha, int red, int green, int blue) {
+        return clamp(alpha) << 24 | clamp(red) << 16 | clamp(green) << 8 | clamp(blue);
+    }
+
+    /**
+     * Gets the alpha channel of a packed color.
+     *
+     * @param argb - The packed color.
+     * @return The alpha channel, between 0 and 255.
+     */
+    public static int alpha(int argb) {
+        return argb >>> 24;
+    }
+
+    /**
+     * Gets the red channel of a packed color.
+     *
+     * @param argb - The packed color.
+     * @return The red channel, between 0 and 255.
+     */
+    public static int red(int argb) {
+        return argb >> 16 & 0xFF;
+    }
+
+    /**
+     * Gets the green channel of a packed color.
+     *
+     * @param argb - The packed color.
+     * @return The green channel, between 0 and 255.
+     */
+    public static int green(int argb) {
+        return argb >> 8 & 0xFF;
+    }
+
+    /**
+     * Gets the blue channel of a packed color.
+     *
+     * @param argb - The packed color.
+     * @return The blue channel, between 0 and 255.
+     */
+    public static int blue(int argb) {
+        return argb & 0xFF;
+    }
+
+    /**
+     * Replaces the alpha channel of a packed color.
+     *
+     * @param argb  - The packed color.
+     * @param alpha - The new alpha, between 0 and 1.
+     * @return The packed color with the new alpha.
+     */
+    public static int withAlpha(int argb, float alpha) {
+        alpha = Math.max(0, Math.min(1, alpha));
+        return (int) (alpha * 255) << 24 | argb & 0xFFFFFF;
+    }
+
+    /**
+     * Brightens a packed color the same way as {@link Color#brighten(float)}, which uses this. The alpha is kept.
+     *
+     * @param argb   - The packed color.
+     * @param amount - The amount to brighten by, clamped to 0-1.
+     * @return The brightened color.
+     */
+    public static int brighten(int argb, float amount) {
+        amount = Math.max(0, Math.min(1, amount));
+        var delta = (int) (amount * 255);
+        var red = red(argb);
+        var green = green(argb);
+        var blue = blue(argb);
+        var newR = Math.min(255, red + delta);
+        var newG = Math.min(255, green + delta);
+        var newB = Math.min(255, blue + delta);
+        // check if the color is too bright, if so, darken it
+        if (newR + newG + newB > 255 * 3) {
+            newR = red - delta;
+            newG = green - delta;
+            newB = blue - delta;
+        }
+        // check if a channel did not change. if so, push the others closer to white
+        if (newR == red) {
+            newG += delta;
+            newB += blue + delta;
+        } else if (newG == green) {
+            newR += red + delta;
+            newB += blue + delta;
+        } else if (newB == blue) {
+            newR += red + delta;
+            newG += green + delta;
+        }
+        return argb(alpha(argb), newR, newG, newB);
+    }
+
+    /**
+     * Inverts the color channels of a packed color. The alpha is kept.
+     *
+     * @param argb - The packed color.
+     * @return The inverted color.
+     */
+    public static int invert(int argb) {
+        return argb ^ 0xFFFFFF;
+    }
+
+    /**
+     * Linearly interpolates between two packed colors, including their alpha, see {@link ColorMath#lerp(int, int, float)}.
+     *
+     * @param from - The color at t = 0.
+     * @param to   - The color at t = 1.
+     * @param t    - The position between the colors, clamped to 0-1.
+     * @return The interpolated color.
+     */
+    public static int lerp(int from, int to, float t) {
+        return ColorMath.lerp(from, to, t);
+    }
+
+    /**
+     * Blends a packed color over another, using the alpha of the source color, see {@link ColorMath#blend(int, int)}.
+     * The result is opaque if the destination is.
+     *
+     * @param source      - The color on top.
+     * @param destination - The color below.
+     * @return The blended color.
+     */
+    public static int blend(int source, int destination) {
+        return ColorMath.blend(source, destination);
+    }
+
+    /**
+     * Calculates the difference between the color channels of two packed colors, like {@link Color#similarity(Color)}.
+     *
+     * @param a - The first color.
+     * @param b - The second color.
+     * @return The difference, between 0 for the same color and 1 for opposite colors.
+     */
+    public static float similarity(int a, int b) {
+        var r = Math.abs(red(a) - red(b));
+        var g = Math.abs(green(a) - green(b));
+        var bl = Math.abs(blue(a) - blue(b));
+        return (r + g + bl) / (255f * 3f);
+    }
+
+    /**
+     * Gets a readable text color for a background. {@link ContrastResolver#resolve(Color, Color, float)} memoizes this
+     * for {@link Color}s.
+     *
+     * @param text       - The preferred packed text color.
+     * @param background - The packed background color.
+     * @param threshold  - The minimum similarity the text needs to have to the background.
+     * @return The text color if it is readable, otherwise its inverse if that is readable, otherwise opaque white.
+     */
+    public static int contrast(int text, int background, float threshold) {
+        if (similarity(text, background) >= threshold)
+            return text;
+        var inverted = invert(text);
+        if (similarity(inverted, background) >= threshold)
+            return inverted;
+        return 0xFFFFFFFF;
+    }
+
+    /**
+     * Clamps a channel to 0-255.
+     */
+    private static int clamp(int channel) {
+        return Math.max(0, Math.min(255, channel));
+    }
+}
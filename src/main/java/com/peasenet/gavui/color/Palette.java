@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.color;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A named, fixed list of colors. Every palette indexes its colors by packed RGB in an open addressing table, so finding
+ * the index of a color takes constant time instead of a scan over the list.
+ * Palettes are kept in a registry by name. The default palette holds {@link Colors#COLORS}, and mods may register their
+ * own with {@link #register(String, Color...)}.
+ */
+public final class Palette {
+
+    /**
+     * Marks an empty slot in the index table. Packed RGB never uses the upper byte, so it can not clash with a color.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * Every registered palette by name.
+     */
+    private static final ConcurrentHashMap<String, Palette> palettes = new ConcurrentHashMap<>();
+
+    /**
+     * The palette of every predefined color, see {@link Colors#COLORS}.
+     */
+    public static final Palette DEFAULT = register("gavui:default", Colors.COLORS);
+
+    /**
+     * The name of this palette.
+     */
+    private final String name;
+
+    /**
+     * The colors of this palette, in order.
+     */
+    private final Color[] colors;
+
+    /**
+     * The packed RGB of the color in every slot of the index table, or {@link #EMPTY}.
+     */
+    private final int[] keys;
+
+    /**
+     * The index in {@link #colors} of the color in every slot of the index table.
+     */
+    private final int[] indices;
+
+    /**
+     * Creates a new palette. Use {@link #register(String, Color...)} to make it available by name.
+     *
+     * @param name   - The name of the palette.
+     * @param colors - The colors of the palette.
+     */
+    private Palette(String name, Color[] colors) {
+        this.name = name;
+        this.colors = colors.clone();
+        var capacity = Integer.highestOneBit(Math.max(1, this.colors.length) * 2 - 1) << 1;
+        keys = new int[capacity];
+        indices = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        var mask = capacity - 1;
+        for (int index = 0; index < this.colors.length; index++) {
+            var key = rgb(this.colors[index]);
+            var i = hash(key) & mask;
+            while (keys[i] != EMPTY && keys[i] != key)
+                i = (i + 1) & mask;
+            // Keep the first index of a duplicated color, like a scan from the start would.
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                indices[i] = index;
+            }
+        }
+    }
+
+    /**
+     * Creates a palette and registers it, replacing any palette of the same name.
+     *
+     * @param name   - The name of the palette, for example "modid:warm".
+     * @param colors - The colors of the palette. The array is copied.
+     * @return The registered palette.
+     */
+    public static Palette register(String name, Color... colors) {
+        if (colors.length == 0)
+            throw new IllegalArgumentException("Palette " + name + " has no colors.");
+        var palette = new Palette(name, colors);
+        palettes.put(name, palette);
+        return palette;
+    }
+
+    /**
+     * Gets a registered palette by name.
+     *
+     * @param name - The name of the palette.
+     * @return The palette, or null if none is registered with that name.
+     */
+    public static Palette get(String name) {
+        return palettes.get(name);
+    }
+
+    /**
+     * Gets every registered palette.
+     *
+     * @return An unmodifiable view of the registered palettes.
+     */
+    public static Collection<Palette> getPalettes() {
+        return Collections.unmodifiableCollection(palettes.values());
+    }
+
+    /**
+     * Gets the name of this palette.
+     *
+     * @return The name of this palette.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of colors in this palette.
+     *
+     * @return The number of colors.
+     */
+    public int size() {
+        return colors.length;
+    }
+
+    /**
+     * Gets the color at the given index.
+     *
+     * @param index - The index of the color.
+     * @return The color at the index.
+     */
+    public Color getColor(int index) {
+        return colors[index];
+    }
+
+    /**
+     * Gets the index of the given color in this palette.
+     *
+     * @param color - The color to find.
+     * @return The index of the color, -1 if it is not in this palette.
+     */
+    public int indexOf(Color color) {
+        return indexOf(rgb(color));
+    }
+
+    /**
+     * Gets the index of the given packed color in this palette. The alpha channel is ignored.
+     *
+     * @param argb - The packed color to find, see {@link PackedColor}.
+     * @return The index of the color, -1 if it is not in this palette.
+     */
+    public int indexOf(int argb) {
+        var key = argb & 0xFFFFFF;
+        var mask = keys.length - 1;
+        var i = hash(key) & mask;
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key)
+                return indices[i];
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets a random index of this palette. Safe to call from any thread.
+     *
+     * @return A random index between 0 and {@link #size()}, exclusive.
+     */
+    public int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(colors.length);
+    }
+
+    /**
+     * Gets a random color of this palette. Safe to call from any thread.
+     *
+     * @return A random color.
+     */
+    public Color randomColor() {
+        return colors[randomIndex()];
+    }
+
+    /**
+     * Gets the packed RGB of a color.
+     */
+    private static int rgb(Color color) {
+        return color.getArgb() & 0xFFFFFF;
+    }
+
+    /**
+     * Mixes the bits of a packed RGB key into a table index.
+     */
+    private static int hash(int key) {
+        var h = key * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+}
@@ -29,18 +29,35 @@ package com.peasenet.gavui.math;
  * y1 - The y coordinate of the top left corner.
  * x2 - The x coordinate of the bottom right corner.
  * y2 - The y coordinate of the bottom right corner.
+ * The corners are stored as plain floats and changed in place by {@link #moveTo(float, float)},
+ * {@link #translate(float, float)} and {@link #resize(float, float)}, so moving a box does not allocate. PointF's are
+ * only created when a corner is asked for.
  */
 public class BoxF {
+    /**
+     * The width of the box.
+     */
     private float width;
+    /**
+     * The height of the box.
+     */
     private float height;
     /**
-     * The top left corner of the box.
+     * The x coordinate of the top left corner.
      */
-    private PointF topLeft;
+    private float x1;
     /**
-     * The bottom right corner of the box.
+     * The y coordinate of the top left corner.
      */
-    private PointF bottomRight;
+    private float y1;
+    /**
+     * The x coordinate of the bottom right corner.
+     */
+    private float x2;
+    /**
+     * The y coordinate of the bottom right corner.
+     */
+    private float y2;
 
     /**
      * Creates a new box.
@@ -50,14 +67,21 @@ public class BoxF {
      * @param height  - The height of the box.
      */
     public BoxF(PointF topLeft, float width, float height) {
-        this.width = width;
-        this.height = height;
-        this.topLeft = topLeft;
-        this.bottomRight = topLeft.add(new PointF(width, height));
+        this(topLeft.x(), topLeft.y(), width, height);
     }
 
+    /**
+     * Creates a new box.
+     *
+     * @param x      - The x coordinate of the top left corner.
+     * @param y      - The y coordinate of the top left corner.
+     * @param width  - The width of the box.
+     * @param height - The height of the box.
+     */
     public BoxF(float x, float y, float width, float height) {
-        this(new PointF(x, y), width, height);
+        this.width = width;
+        this.height = height;
+        moveTo(x, y);
     }
 
     /**
@@ -67,7 +91,7 @@ public class BoxF {
      * @return A copy of the given box.
      */
     public static BoxF copy(BoxF other) {
-        return new BoxF(other.topLeft, other.width, other.height);
+        return new BoxF(other.x1, other.y1, other.width, other.height);
     }
 
     /**
@@ -76,7 +100,7 @@ public class BoxF {
      * @return The top left corner of the box.
      */
     public PointF getTopLeft() {
-        return topLeft;
+        return new PointF(x1, y1);
     }
 
     /**
@@ -85,8 +109,42 @@ public class BoxF {
      * @param point - The new location of the box.
      */
     public void setTopLeft(PointF point) {
-        this.topLeft = point;
-        this.bottomRight = topLeft.add(new PointF(width, height));
+        moveTo(point.x(), point.y());
+    }
+
+    /**
+     * Moves the top left corner of the box to the given coordinates, keeping its size.
+     *
+     * @param x - The new x coordinate of the top left corner.
+     * @param y - The new y coordinate of the top left corner.
+     */
+    public void moveTo(float x, float y) {
+        x1 = x;
+        y1 = y;
+        x2 = x + width;
+        y2 = y + height;
+    }
+
+    /**
+     * Moves the box by the given offset, keeping its size.
+     *
+     * @param dx - The offset on the x axis.
+     * @param dy - The offset on the y axis.
+     */
+    public void translate(float dx, float dy) {
+        moveTo(x1 + dx, y1 + dy);
+    }
+
+    /**
+     * Changes the size of the box, keeping its top left corner.
+     *
+     * @param width  - The new width of the box.
+     * @param height - The new height of the box.
+     */
+    public void resize(float width, float height) {
+        this.width = width;
+        this.height = height;
+        moveTo(x1, y1);
     }
 
     /**
@@ -95,7 +153,7 @@ public class BoxF {
      * @return The bottom right corner of the box.
      */
     public PointF getBottomRight() {
-        return bottomRight;
+        return new PointF(x2, y2);
     }
 
     /**
@@ -122,28 +180,30 @@ public class BoxF {
      * @param middle - The new mid-point of the box.
      */
     public void setMiddle(PointF middle) {
-        setTopLeft(middle.subtract(new PointF(width / 2, height / 2)));
+        moveTo(middle.x() - width / 2, middle.y() - height / 2);
     }
 
     public float getX1() {
-        return topLeft.x();
+        return x1;
     }
 
     public float getY1() {
-        return topLeft.y();
+        return y1;
     }
 
     public float getX2() {
-        return bottomRight.x();
+        return x2;
     }
 
     public float getY2() {
-        return bottomRight.y();
+        return y2;
     }
 
     public void from(BoxF other) {
-        this.topLeft = other.topLeft;
-        this.bottomRight = other.bottomRight;
+        this.x1 = other.x1;
+        this.y1 = other.y1;
+        this.x2 = other.x2;
+        this.y2 = other.y2;
         this.width = other.width;
         this.height = other.height;
     }
@@ -23,10 +23,10 @@ package com.peasenet.gavui.util;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.ToNumberPolicy;
-import com.google.gson.reflect.TypeToken;
 import com.peasenet.gavui.GavUI;
 import com.peasenet.gavui.color.Color;
 import com.peasenet.gavui.color.Colors;
+import com.peasenet.gavui.util.callbacks.SettingListener;
 import net.minecraft.client.MinecraftClient;
 import org.jetbrains.annotations.NotNull;
 
@@ -34,29 +34,124 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Serializable;
-import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author gt3ch1
  * @version 01/07/2023
- * A class that contains all the settings for the mod.
+ * A class that contains all the settings for the mod. Settings can be read and written from any thread.
  */
 public class GavUISettings {
 
     /**
-     * The list of all settings and their values.
+     * The current snapshot of all settings and their values. Values are decoded once when they are loaded or added, so
+     * colors are stored as {@link Color}, and numbers and booleans as their boxed types. The snapshot is never
+     * modified; writers replace it with a compare-and-swap, so it can be read from any thread without locking.
      */
-    private static final HashMap<String, Object> settings = new HashMap<>();
+    private static final AtomicReference<SettingsSnapshot> snapshot = new AtomicReference<>(SettingsSnapshot.EMPTY);
 
     /**
      * The collection of default settings.
      */
-    private static final HashMap<String, Object> default_settings = new HashMap<>();
+    private static final ConcurrentHashMap<String, Object> default_settings = new ConcurrentHashMap<>();
+
+    /**
+     * Every registered setting key, by name.
+     */
+    private static final ConcurrentHashMap<String, SettingKey<?>> keys = new ConcurrentHashMap<>();
+
+    /**
+     * The listeners of every setting, by name.
+     */
+    private static final ConcurrentHashMap<String, CopyOnWriteArrayList<Subscription>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Completed once the settings file has been loaded, see {@link #initializeAsync()}.
+     */
+    private static volatile CompletableFuture<Void> loaded;
+
+    /**
+     * The settings file, or null to use mods/gavui/settings.json in the game directory. See {@link #setFile(Path)}.
+     */
+    private static volatile Path settingsFile;
+
+    /**
+     * Whether the settings file is being loaded for the first time, see {@link #initializeAsync()}. Saves are deferred
+     * until it is loaded, so that the defaults served in the meantime never overwrite the file.
+     */
+    private static volatile boolean loading = false;
+
+    /**
+     * Guards {@link #writtenWhileLoading} and {@link #saveDeferred}, and the end of the first load.
+     */
+    private static final Object loadLock = new Object();
+
+    /**
+     * The settings that were written while the settings file was first loaded. They are newer than the file, so they
+     * are kept over the loaded values.
+     */
+    private static final HashMap<String, Object> writtenWhileLoading = new HashMap<>();
+
+    /**
+     * Whether a save was requested while the settings file was first loaded.
+     */
+    private static boolean saveDeferred = false;
+
+    /**
+     * The watcher reloading the settings file when it is changed outside the game, or null if it is not watched.
+     */
+    private static SettingsWatcher watcher;
+
+    /**
+     * The background color of gui elements.
+     */
+    public static final SettingKey<Color> BACKGROUND_COLOR = SettingKey.ofColor("gui.color.background", Colors.BLACK);
+
+    /**
+     * The color of text.
+     */
+    public static final SettingKey<Color> FOREGROUND_COLOR = SettingKey.ofColor("gui.color.foreground", Colors.WHITE);
+
+    /**
+     * The background color of parent elements, such as categories.
+     */
+    public static final SettingKey<Color> CATEGORY_COLOR = SettingKey.ofColor("gui.color.category", Colors.INDIGO);
+
+    /**
+     * The background color of enabled toggles.
+     */
+    public static final SettingKey<Color> ENABLED_COLOR = SettingKey.ofColor("gui.color.enabled", Colors.CYAN);
+
+    /**
+     * Whether gui elements play sounds.
+     */
+    public static final SettingKey<Boolean> SOUND = SettingKey.ofBool("gui.sound", false);
+
+    /**
+     * The alpha of gui elements.
+     */
+    public static final SettingKey<Float> ALPHA = SettingKey.ofFloat("gui.alpha", 0.5f);
+
+    /**
+     * The color of the text of frozen elements.
+     */
+    public static final SettingKey<Color> FROZEN_COLOR = SettingKey.ofColor("gui.color.frozen", Colors.RED);
+
+    /**
+     * The color of borders.
+     */
+    public static final SettingKey<Color> BORDER_COLOR = SettingKey.ofColor("gui.color.border", Colors.WHITE);
 
     /**
      * Initializes and loads the configuration file. If the file does not exist, it will be created.
@@ -67,38 +162,220 @@ public class GavUISettings {
     }
 
     /**
-     * Initializes the settings.
+     * Initializes the settings, blocking until the settings file is loaded.
      */
     public static void initialize() {
-        default_settings.put("gui.color.background", (Colors.BLACK));
-        default_settings.put("gui.color.foreground", (Colors.WHITE));
-        default_settings.put("gui.color.category", (Colors.INDIGO));
-        default_settings.put("gui.color.enabled", (Colors.CYAN));
-        default_settings.put("gui.sound", false);
-        default_settings.put("gui.alpha", 0.5f);
-        default_settings.put("gui.color.frozen", (Colors.RED));
-        default_settings.put("gui.color.border", (Colors.WHITE));
-        load();
+        initializeAsync().join();
     }
 
     /**
-     * Saves the current settings to mods/gavui/settings.json
+     * Initializes the settings without waiting for the settings file. The default settings are served right away, and
+     * the settings file is read and parsed on a background thread. Once it is parsed, every loaded setting is swapped
+     * in at once, so readers never see a mix of loaded and default settings. Settings that are written before then
+     * are kept over the values in the file, and nothing is saved until the file is loaded.
+     * Calling this again returns the same future.
+     *
+     * @return A future that completes once the settings file is loaded.
      */
-    public static void save() {
-        // open the mods folder
-        var cfgFile = getFilePath();
-        // ensure the settings file exists
-        ensureCfgCreated(cfgFile);
-        var json = new GsonBuilder().setPrettyPrinting().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
-        var map = new HashMap<>(settings);
+    public static synchronized CompletableFuture<Void> initializeAsync() {
+        if (loaded != null)
+            return loaded;
+        loading = true;
+        putAll(new HashMap<>(default_settings));
+        // nothing could have been saved yet, so the file is read without flushing first
+        loaded = CompletableFuture.runAsync(GavUISettings::readFile).whenComplete((result, e) -> {
+            if (e != null) {
+                GavUI.LOGGER.error("Error loading settings, using the defaults.", e);
+                commitLoaded(new HashMap<>(default_settings), false);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Starts watching the settings file, so that changes made to it outside the game are picked up while the game is
+     * running. The file is parsed on a background thread, and the new settings are swapped in at once. Settings that
+     * are missing or have the wrong type fall back to their default value.
+     */
+    public static synchronized void startWatching() {
+        if (watcher != null)
+            return;
         try {
-            var writer = Files.newBufferedWriter(Paths.get(cfgFile));
-            json.toJson(map, writer);
-            writer.close();
-        } catch (Exception ignored) {
+            watcher = new SettingsWatcher(Path.of(getFilePath()));
+        } catch (IOException e) {
+            GavUI.LOGGER.error("Could not watch the settings file.");
+            GavUI.LOGGER.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Stops watching the settings file, see {@link #startWatching()}.
+     */
+    public static synchronized void stopWatching() {
+        if (watcher == null)
+            return;
+        watcher.close();
+        watcher = null;
+    }
+
+    /**
+     * Reloads the settings file after it was changed outside the game. Unlike {@link #load()}, a file that can not be
+     * parsed is left alone, and the current settings are kept.
+     *
+     * @param file - The settings file.
+     */
+    static void reload(Path file) {
+        Map<?, ?> map;
+        try (var reader = Files.newBufferedReader(file)) {
+            map = new GsonBuilder().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create().fromJson(reader, HashMap.class);
+        } catch (Exception e) {
+            GavUI.LOGGER.warn("Could not reload the settings file: " + e.getMessage());
+            return;
+        }
+        if (map == null)
+            return;
+        var reloaded = new HashMap<String, Object>();
+        default_settings.forEach((k, defaultValue) -> {
+            var value = normalize(k, decode(map.get(k)));
+            reloaded.put(k, isValid(value, defaultValue) ? value : defaultValue);
+        });
+        putAll(reloaded);
+        GavUI.LOGGER.info("Reloaded the settings file.");
+    }
+
+    /**
+     * Whether a decoded setting value has the same kind of type as the default value of the setting.
+     *
+     * @param value        - The decoded value.
+     * @param defaultValue - The default value.
+     * @return True if the value can be used.
+     */
+    private static boolean isValid(Object value, Object defaultValue) {
+        if (value == null)
+            return false;
+        if (defaultValue instanceof Number)
+            return value instanceof Number;
+        return defaultValue == null || defaultValue.getClass().isInstance(value);
+    }
+
+    /**
+     * Whether the settings file has been loaded. Until then, the default settings are served.
+     *
+     * @return True if the settings file is loaded.
+     */
+    public static boolean isLoaded() {
+        var future = loaded;
+        return future != null && future.isDone();
+    }
+
+    /**
+     * Registers a typed setting, adding its default value to the default settings. Registering a name again returns
+     * the key it was first registered with.
+     *
+     * @param name         - The name of the setting.
+     * @param type         - The type of the value of the setting.
+     * @param defaultValue - The default value of the setting.
+     * @param <T>          - The type of the value of the setting.
+     * @return The key of the setting.
+     * @throws IllegalArgumentException If the name was already registered with another type.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SettingKey<T> register(String name, Class<T> type, T defaultValue) {
+        // registering is rare, so slots are handed out under a lock; publishing the slot is lock-free like every write
+        synchronized (keys) {
+            var existing = keys.get(name);
+            if (existing != null) {
+                if (existing.getType() != type)
+                    throw new IllegalArgumentException("Setting " + name + " is already registered as " + existing.getType().getSimpleName() + ".");
+                return (SettingKey<T>) existing;
+            }
+            var key = new SettingKey<>(name, type, defaultValue, keys.size());
+            default_settings.putIfAbsent(name, defaultValue);
+            keys.put(name, key);
+            SettingsSnapshot current;
+            do {
+                current = snapshot.get();
+            } while (!snapshot.compareAndSet(current, current.withKey(key)));
+            return key;
+        }
+    }
+
+    /**
+     * Gets the value of the given setting.
+     *
+     * @param key - The key of the setting.
+     * @param <T> - The type of the value of the setting.
+     * @return The value of the setting, or its default value if it is missing or has the wrong type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(SettingKey<T> key) {
+        return (T) snapshot.get().getValue(key.slot);
+    }
+
+    /**
+     * Gets the value of the given float setting without unboxing it.
+     *
+     * @param key - The key of the setting.
+     * @return The value of the setting.
+     */
+    public static float getFloat(SettingKey<Float> key) {
+        return snapshot.get().getFloat(key.slot);
+    }
+
+    /**
+     * Gets the value of the given boolean setting without unboxing it.
+     *
+     * @param key - The key of the setting.
+     * @return The value of the setting.
+     */
+    public static boolean getBool(SettingKey<Boolean> key) {
+        return snapshot.get().getBool(key.slot);
+    }
+
+    /**
+     * Sets the value of the given setting, and saves the settings.
+     *
+     * @param key   - The key of the setting.
+     * @param value - The new value of the setting.
+     * @param <T>   - The type of the value of the setting.
+     */
+    public static <T extends Serializable> void set(SettingKey<T> key, T value) {
+        add(key.getName(), value);
+    }
 
+    /**
+     * Saves the current settings to mods/gavui/settings.json. The file is written on a background thread once no
+     * setting has changed for a short while, so this can be called on every change.
+     */
+    public static void save() {
+        if (loading) {
+            synchronized (loadLock) {
+                if (loading) {
+                    saveDeferred = true;
+                    return;
+                }
+            }
         }
-        load();
+        SettingsPersister.schedule(Path.of(getFilePath()), () -> snapshot.get().getSettings());
+    }
+
+    /**
+     * Sets the file the settings are loaded from and saved to, instead of mods/gavui/settings.json in the game
+     * directory. This has to be called before the settings are initialized, and also lets the settings be used
+     * without a running game.
+     *
+     * @param file - The settings file, or null to use the default file.
+     */
+    public static void setFile(Path file) {
+        settingsFile = file;
+    }
+
+    /**
+     * Writes any settings that were saved but not written yet, blocking until the file is written. Saves deferred while
+     * the settings file is first loaded are not written until it is loaded.
+     */
+    public static void flush() {
+        SettingsPersister.flush();
     }
 
     /**
@@ -122,6 +399,9 @@ public class GavUISettings {
      */
     @NotNull
     private static String getFilePath() {
+        var file = settingsFile;
+        if (file != null)
+            return file.toString();
         var runDir = MinecraftClient.getInstance().runDirectory.getAbsolutePath();
         var modsDir = runDir + "/mods";
         // ensure the gavinsmod folder exists
@@ -136,16 +416,36 @@ public class GavUISettings {
     }
 
     /**
-     * Loads the settings from the settings file.
+     * Loads the settings from the settings file. If the settings file is being loaded for the first time, this waits
+     * for it to be loaded instead of reading it again.
      */
     public static void load() {
+        if (loading) {
+            // the first load ends the loading, so it must not be raced by another read, see commitLoaded
+            initializeAsync().join();
+            return;
+        }
+        // make sure the file is up-to-date before reading it
+        SettingsPersister.flush();
+        readFile();
+    }
+
+    /**
+     * Reads the settings file and swaps in its settings, see {@link #commitLoaded(HashMap, boolean)}. Settings missing
+     * from the file are given their default value, and a file that can not be parsed is replaced by the defaults.
+     */
+    private static void readFile() {
         // open the mods folder
         var cfgFile = getFilePath();
         // ensure the settings file exists
         ensureCfgCreated(cfgFile);
         Gson gson = new GsonBuilder().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
+        var loaded = new HashMap<String, Object>();
         try {
-            var map = gson.fromJson(new FileReader(cfgFile), HashMap.class);
+            // the binary cache is only used if it was written for the json file as it is now
+            Map<?, ?> cached = SettingsCache.read(Path.of(cfgFile));
+            var fromCache = cached != null;
+            Map<?, ?> map = fromCache ? cached : gson.fromJson(new FileReader(cfgFile), HashMap.class);
 
             AtomicBoolean wasNull = new AtomicBoolean(false);
             default_settings.forEach((k, _v) -> {
@@ -154,33 +454,51 @@ public class GavUISettings {
                     wasNull.set(true);
                     val = default_settings.get(k);
                 }
-                settings.put(k, val);
+                loaded.put(k, normalize(k, decode(val)));
             });
-            if (wasNull.get()) {
-                save();
-            }
+            if (!wasNull.get() && !fromCache)
+                SettingsCache.write(Path.of(cfgFile), loaded);
+            commitLoaded(loaded, wasNull.get());
         } catch (Exception e) {
             // rename settings file to settings.bak
             var bakFile = cfgFile + ".bak";
             int bakCount = 1;
             // check if the backup file exists
-            if (!Files.exists(Paths.get(bakFile))) {
-                loadDefault();
-                save();
-                return;
-            }
-            while (Files.exists(Paths.get(bakFile))) {
-                bakFile = cfgFile + ".bak" + bakCount;
+            if (Files.exists(Paths.get(bakFile))) {
+                while (Files.exists(Paths.get(bakFile))) {
+                    bakFile = cfgFile + ".bak" + bakCount;
+                }
+                try {
+                    Files.move(Paths.get(cfgFile), Paths.get(bakFile));
+                } catch (IOException e1) {
+                    GavUI.LOGGER.error("Error renaming settings file.");
+                    GavUI.LOGGER.error(e1.getMessage());
+                }
             }
-            try {
-                Files.move(Paths.get(cfgFile), Paths.get(bakFile));
-            } catch (IOException e1) {
-                GavUI.LOGGER.error("Error renaming settings file.");
-                GavUI.LOGGER.error(e1.getMessage());
+            commitLoaded(new HashMap<>(default_settings), true);
+        }
+    }
+
+    /**
+     * Swaps in the settings read from the settings file. If this ends the first load, the settings written while it
+     * was loading are kept over the loaded ones, and saves are no longer deferred.
+     *
+     * @param loaded    - The decoded settings that were read.
+     * @param needsSave - Whether the file has to be written again, for example because settings were missing.
+     */
+    private static void commitLoaded(HashMap<String, Object> loaded, boolean needsSave) {
+        synchronized (loadLock) {
+            if (loading) {
+                loaded.putAll(writtenWhileLoading);
+                needsSave |= saveDeferred || !writtenWhileLoading.isEmpty();
+                writtenWhileLoading.clear();
+                saveDeferred = false;
             }
-            loadDefault();
-            save();
+            putAll(loaded);
+            loading = false;
         }
+        if (needsSave)
+            save();
     }
 
     /**
@@ -190,12 +508,7 @@ public class GavUISettings {
      * @return The boolean value of the setting.
      */
     public static boolean getBool(String key) {
-        if (!settings.containsKey(key)) return false;
-        if (settings.get(key) == null) {
-            settings.put(key, false);
-            return false;
-        }
-        return (boolean) settings.get(key);
+        return snapshot.get().get(key) instanceof Boolean b && b;
     }
 
     /**
@@ -205,19 +518,28 @@ public class GavUISettings {
      * @return The color.
      */
     public static Color getColor(String key) {
-        if (!settings.containsKey(key)) return Colors.WHITE;
-        Gson gson = new Gson();
-        Type colorListType = new TypeToken<Color>() {
-        }.getType();
-        Color c = gson.fromJson(settings.get(key).toString(), colorListType);
-        return c;
+        if (snapshot.get().get(key) instanceof Color c) return c;
+        return Colors.WHITE;
     }
 
     /**
-     * Loads the default configuration.
+     * Loads the default configuration. If the settings file is still being loaded for the first time, the defaults are
+     * kept over the values in the file, like any other setting written in the meantime.
      */
     public static void loadDefault() {
-        settings.putAll(default_settings);
+        var defaults = new HashMap<>(default_settings);
+        if (loading) {
+            synchronized (loadLock) {
+                if (loading) {
+                    // the settings file being loaded must not overwrite this, see commitLoaded
+                    writtenWhileLoading.putAll(defaults);
+                    putAll(defaults);
+                    saveDeferred = true;
+                    return;
+                }
+            }
+        }
+        putAll(defaults);
         save();
     }
 
@@ -228,8 +550,188 @@ public class GavUISettings {
      * @param value - The value of the setting.
      */
     public static void add(String key, Serializable value) {
-        settings.put(key, value);
+        if (loading) {
+            synchronized (loadLock) {
+                if (loading) {
+                    // the settings file being loaded must not overwrite this, see commitLoaded
+                    var decoded = decode(value);
+                    writtenWhileLoading.put(key, decoded);
+                    put(key, decoded);
+                    return;
+                }
+            }
+        }
+        put(key, decode(value));
+    }
+
+    /**
+     * Puts a single decoded setting, saves the settings and notifies the listeners of the setting, if its value
+     * changed.
+     *
+     * @param key     - The key of the setting.
+     * @param decoded - The decoded value of the setting.
+     */
+    private static void put(String key, Object decoded) {
+        SettingsSnapshot current, next;
+        do {
+            current = snapshot.get();
+            if (sameValue(current.get(key), decoded))
+                return;
+            next = current.withSettings(Collections.singletonMap(key, decoded), keys);
+        } while (!snapshot.compareAndSet(current, next));
         save();
+        notifyListeners(next, key);
+    }
+
+    /**
+     * Puts every given setting at once, updating the slots of their keys, and notifies the listeners of every setting
+     * whose value changed. Readers see either none or all of the changes.
+     *
+     * @param newSettings - The decoded settings to put.
+     */
+    static void putAll(Map<String, Object> newSettings) {
+        SettingsSnapshot current, next;
+        HashMap<String, Object> changes;
+        do {
+            current = snapshot.get();
+            changes = new HashMap<>();
+            for (var entry : newSettings.entrySet()) {
+                if (!sameValue(current.get(entry.getKey()), entry.getValue()))
+                    changes.put(entry.getKey(), entry.getValue());
+            }
+            if (changes.isEmpty())
+                return;
+            next = current.withSettings(changes, keys);
+        } while (!snapshot.compareAndSet(current, next));
+        for (var key : changes.keySet())
+            notifyListeners(next, key);
+    }
+
+    /**
+     * Whether two decoded setting values are equal. Numbers are compared by value, as the same setting may be a
+     * {@link Float} when it is set and a {@link Double} or {@link Long} when it is read from a file. Fractional
+     * numbers are compared with float precision, which is what float settings are read with.
+     *
+     * @param a - The first value.
+     * @param b - The second value.
+     * @return True if the values are equal.
+     */
+    static boolean sameValue(Object a, Object b) {
+        if (a instanceof Color c && b instanceof Color other)
+            return c.equals(other);
+        if (a instanceof Number x && b instanceof Number y) {
+            if (isIntegral(x) && isIntegral(y))
+                return x.longValue() == y.longValue();
+            return Float.compare(x.floatValue(), y.floatValue()) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+
+    /**
+     * Whether a number is a whole number type.
+     *
+     * @param n - The number.
+     * @return True if the number is a {@link Long}, {@link Integer}, {@link Short} or {@link Byte}.
+     */
+    private static boolean isIntegral(Number n) {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+    }
+
+    /**
+     * Subscribes to changes of the given setting. The listener is called on the thread that changed the setting, once
+     * for every change that actually changes its value, after the change is visible through {@link #get(SettingKey)}.
+     *
+     * @param key      - The key of the setting.
+     * @param listener - The listener to call with the new value.
+     * @param <T>      - The type of the value of the setting.
+     */
+    public static <T> void subscribe(SettingKey<T> key, SettingListener<T> listener) {
+        listeners.computeIfAbsent(key.getName(), k -> new CopyOnWriteArrayList<>()).add(new Subscription(key, listener));
+    }
+
+    /**
+     * Subscribes to changes of the given setting by name, for settings that have no {@link SettingKey}. The listener
+     * is called with the decoded value of the setting, see {@link #subscribe(SettingKey, SettingListener)}.
+     *
+     * @param key      - The name of the setting.
+     * @param listener - The listener to call with the new value.
+     */
+    public static void subscribe(String key, SettingListener<Object> listener) {
+        listeners.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(new Subscription(null, listener));
+    }
+
+    /**
+     * Removes a listener of the given setting.
+     *
+     * @param key      - The name of the setting.
+     * @param listener - The listener to remove.
+     */
+    public static void unsubscribe(String key, SettingListener<?> listener) {
+        var list = listeners.get(key);
+        if (list != null)
+            list.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    /**
+     * Removes a listener of the given setting.
+     *
+     * @param key      - The key of the setting.
+     * @param listener - The listener to remove.
+     */
+    public static void unsubscribe(SettingKey<?> key, SettingListener<?> listener) {
+        unsubscribe(key.getName(), listener);
+    }
+
+    /**
+     * Calls every listener of the given setting with its value in the given snapshot.
+     *
+     * @param committed - The snapshot that changed the setting.
+     * @param key       - The name of the setting.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void notifyListeners(SettingsSnapshot committed, String key) {
+        var list = listeners.get(key);
+        if (list == null)
+            return;
+        for (var subscription : list) {
+            Object value;
+            if (subscription.key == null)
+                value = committed.get(key);
+            else if (committed.hasSlot(subscription.key.slot))
+                value = committed.getValue(subscription.key.slot);
+            else
+                // the key was registered after the change was committed
+                value = get(subscription.key);
+            ((SettingListener) subscription.listener).changed(value);
+        }
+    }
+
+    /**
+     * A listener of a setting, and the key it reads the new value through, if any.
+     *
+     * @param key      - The key of the setting, or null if the listener is given the decoded value.
+     * @param listener - The listener.
+     */
+    private record Subscription(SettingKey<?> key, SettingListener<?> listener) {
+    }
+
+    /**
+     * Gets the current snapshot of every setting. Everything read from one snapshot is consistent.
+     *
+     * @return The current snapshot.
+     */
+    static SettingsSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Gets the current version of the settings. The version changes every time the value of a setting changes,
+     * so it can be used to find out whether anything derived from the settings is out of date.
+     *
+     * @return The current version of the settings.
+     */
+    public static int getVersion() {
+        return snapshot.get().getVersion();
     }
 
     /**
@@ -239,11 +741,40 @@ public class GavUISettings {
      * @return The float value of the setting.
      */
     public static float getFloat(String s) {
-        if (!settings.containsKey(s)) return 0;
-        if (settings.get(s) == null) {
-            settings.put(s, 0);
-            return 0;
-        }
-        return Float.parseFloat(settings.get(s).toString());
+        var value = snapshot.get().get(s);
+        if (value instanceof Number n) return n.floatValue();
+        if (value == null) return 0;
+        return Float.parseFloat(value.toString());
+    }
+
+    /**
+     * Converts a decoded number to the type of the key of its setting, so that a setting reads the same whether it was
+     * parsed from json, which reads every fraction as a {@link Double}, or read from the {@link SettingsCache}.
+     *
+     * @param name  - The name of the setting.
+     * @param value - The decoded value.
+     * @return The value, as a {@link Float} if the setting is a registered float setting.
+     */
+    private static Object normalize(String name, Object value) {
+        var key = keys.get(name);
+        if (key != null && key.getType() == Float.class && value instanceof Number n)
+            return n.floatValue();
+        return value;
+    }
+
+    /**
+     * Decodes a raw setting value, as read by Gson, into the type it is read as. Colors are read as maps of their red,
+     * green and blue channels, and are turned into {@link Color}s. Every other value is returned as is.
+     *
+     * @param value - The raw value.
+     * @return The decoded value.
+     */
+    private static Object decode(Object value) {
+        if (value instanceof Map<?, ?> map
+                && map.get("red") instanceof Number red
+                && map.get("green") instanceof Number green
+                && map.get("blue") instanceof Number blue)
+            return new Color(red.intValue(), green.intValue(), blue.intValue());
+        return value;
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.BufferRenderer;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import org.joml.Matrix4f;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A batch of position-color geometry that is collected over a frame and submitted in a single draw call.
+ * Each vertex carries its own color, so elements of different colors can share the same batch.
+ */
+public class GuiBatch {
+
+    /**
+     * The initial size of the backing buffer, in bytes. The buffer grows on demand.
+     */
+    private static final int INITIAL_CAPACITY = 0x8000;
+
+    /**
+     * The draw mode used by this batch.
+     */
+    private final VertexFormat.DrawMode drawMode;
+
+    /**
+     * The buffer that holds the vertices of this batch. Created lazily on the first vertex.
+     */
+    private BufferBuilder buffer;
+
+    /**
+     * The number of vertices currently held by this batch.
+     */
+    private int vertexCount;
+
+    /**
+     * Creates a new batch.
+     *
+     * @param drawMode - The draw mode of the batch.
+     */
+    public GuiBatch(VertexFormat.DrawMode drawMode) {
+        this.drawMode = drawMode;
+    }
+
+    /**
+     * Gets the buffer of this batch, starting it if it is not currently building.
+     *
+     * @return The buffer of this batch.
+     */
+    private BufferBuilder buffer() {
+        if (buffer == null)
+            buffer = new BufferBuilder(INITIAL_CAPACITY);
+        if (!buffer.isBuilding())
+            buffer.begin(drawMode, VertexFormats.POSITION_COLOR);
+        return buffer;
+    }
+
+    /**
+     * Adds a single vertex to this batch.
+     *
+     * @param matrix - The matrix to transform the vertex with.
+     * @param x      - The x coordinate of the vertex.
+     * @param y      - The y coordinate of the vertex.
+     * @param argb   - The packed ARGB color of the vertex.
+     */
+    public void vertex(Matrix4f matrix, float x, float y, int argb) {
+        GuiUtil.vertex(buffer(), matrix, x, y, argb);
+        vertexCount++;
+    }
+
+    /**
+     * Adds an axis aligned quad to this batch. Only valid for batches using {@link VertexFormat.DrawMode#QUADS}.
+     *
+     * @param matrix - The matrix to transform the quad with.
+     * @param x1     - The x coordinate of the top left corner.
+     * @param y1     - The y coordinate of the top left corner.
+     * @param x2     - The x coordinate of the bottom right corner.
+     * @param y2     - The y coordinate of the bottom right corner.
+     * @param argb   - The packed ARGB color of the quad.
+     */
+    public void quad(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        GuiUtil.quad(buffer(), matrix, x1, y1, x2, y2, argb);
+        vertexCount += 4;
+    }
+
+    /**
+     * Adds a single line segment to this batch. Only valid for batches using
+     * {@link VertexFormat.DrawMode#DEBUG_LINES}.
+     *
+     * @param matrix - The matrix to transform the line with.
+     * @param x1     - The x coordinate of the start of the line.
+     * @param y1     - The y coordinate of the start of the line.
+     * @param x2     - The x coordinate of the end of the line.
+     * @param y2     - The y coordinate of the end of the line.
+     * @param argb   - The packed ARGB color of the line.
+     */
+    public void line(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        vertex(matrix, x1, y1, argb);
+        vertex(matrix, x2, y2, argb);
+    }
+
+    /**
+     * Adds the outline of an axis aligned box to this batch as four line segments. Only valid for batches using
+     * {@link VertexFormat.DrawMode#DEBUG_LINES}.
+     *
+     * @param matrix - The matrix to transform the outline with.
+     * @param x1     - The x coordinate of the top left corner.
+     * @param y1     - The y coordinate of the top left corner.
+     * @param x2     - The x coordinate of the bottom right corner.
+     * @param y2     - The y coordinate of the bottom right corner.
+     * @param argb   - The packed ARGB color of the outline.
+     */
+    public void outline(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        GuiUtil.outline(buffer(), matrix, x1, y1, x2, y2, argb);
+        vertexCount += 8;
+    }
+
+    /**
+     * Gets the number of vertices currently held by this batch.
+     *
+     * @return The number of vertices in this batch.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Whether this batch holds no vertices.
+     *
+     * @return True if there is nothing to draw.
+     */
+    public boolean isEmpty() {
+        return vertexCount == 0;
+    }
+
+    /**
+     * Finishes this batch without drawing it, so that it can be uploaded somewhere else. The batch is emptied.
+     *
+     * @return The finished buffer, or null if the batch is empty.
+     */
+    public BufferBuilder.BuiltBuffer end() {
+        if (isEmpty()) return null;
+        vertexCount = 0;
+        return buffer.end();
+    }
+
+    /**
+     * Draws everything in this batch with a single draw call, and empties it. The render state is set through
+     * {@link RenderStateTracker} and left as is, so it is up to the caller to restore it.
+     */
+    public void flush() {
+        if (isEmpty()) return;
+        RenderStateTracker.setShader(GameRenderer::getPositionColorProgram);
+        RenderStateTracker.enableBlend();
+        RenderStateTracker.defaultBlendFunc();
+        RenderStateTracker.setShaderColor(1f, 1f, 1f, 1f);
+        BufferRenderer.drawWithGlobalProgram(end());
+    }
+}
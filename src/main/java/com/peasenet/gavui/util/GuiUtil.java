@@ -20,13 +20,16 @@
 
 package com.peasenet.gavui.util;
 
-import com.mojang.blaze3d.systems.RenderSystem;
 import com.peasenet.gavui.GavUI;
 import com.peasenet.gavui.color.Color;
+import com.peasenet.gavui.color.PackedColor;
 import com.peasenet.gavui.math.BoxF;
 import com.peasenet.gavui.math.PointF;
+import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.render.*;
 import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
 import org.joml.Matrix4f;
 
 /**
@@ -35,6 +38,182 @@ import org.joml.Matrix4f;
  * A utility class for drawing gui elements.
  */
 public class GuiUtil {
+
+    /**
+     * The backend that draws to the game window, used unless another backend is set.
+     */
+    private static final MinecraftRenderBackend minecraftBackend = new MinecraftRenderBackend();
+
+    /**
+     * The backend every primitive is currently drawn to.
+     */
+    private static RenderBackend backend = minecraftBackend;
+
+    /**
+     * How many times {@link #beginBatch()} has been called without a matching {@link #endBatch()}.
+     */
+    private static int batchDepth = 0;
+
+    /**
+     * How many times {@link #beginSkip()} has been called without a matching {@link #endSkip()}.
+     */
+    private static int skipDepth = 0;
+
+    /**
+     * The current frame, incremented every time an outermost batch is opened.
+     */
+    private static long frame = 0;
+
+    /**
+     * Opens a batch. Until the matching {@link #endBatch()}, boxes, outlines, lines and text are collected instead of
+     * being drawn right away.
+     * Batches may be nested; only the outermost {@link #endBatch()} draws the collected geometry.
+     */
+    public static void beginBatch() {
+        if (batchDepth == 0) {
+            frame++;
+            backend.beginFrame();
+        }
+        batchDepth++;
+    }
+
+    /**
+     * Closes a batch, drawing everything that was collected if this was the outermost batch.
+     */
+    public static void endBatch() {
+        if (batchDepth == 0) return;
+        batchDepth--;
+        if (batchDepth != 0) return;
+        backend.flush();
+        backend.endFrame();
+        RenderStats.endBatch();
+    }
+
+    /**
+     * Whether a batch is currently open.
+     *
+     * @return True if geometry is currently being collected.
+     */
+    public static boolean isBatching() {
+        return batchDepth > 0;
+    }
+
+    /**
+     * Gets the current frame. A frame starts every time an outermost batch is opened, so this is a version counter
+     * that only ever increases, and can be used to tell whether something changed after something else was built.
+     *
+     * @return The current frame.
+     */
+    public static long getFrame() {
+        return frame;
+    }
+
+    /**
+     * Draws everything collected so far in the current batch without closing it. This can be used to separate layers.
+     * Fills are drawn first, then every outline on top of them, and then all text on top of both.
+     */
+    public static void flushBatch() {
+        backend.flush();
+    }
+
+    /**
+     * Sets the backend every gui primitive is drawn to. A {@link RecordingRenderBackend} can be set to render a tree of
+     * gui elements without a GL context, for example in a benchmark:
+     * <pre>{@code
+     * var recorder = new RecordingRenderBackend();
+     * GuiUtil.setBackend(recorder);
+     * gui.render(new DrawContext(null, null), null, 0, 0, 0);
+     * GuiUtil.setBackend(null);
+     * }</pre>
+     *
+     * @param renderBackend - The backend to draw to, or null to draw to the game window again.
+     * @throws IllegalStateException If a batch is open.
+     */
+    public static void setBackend(RenderBackend renderBackend) {
+        if (isBatching())
+            throw new IllegalStateException("The render backend can not be changed while a batch is open.");
+        backend = renderBackend == null ? minecraftBackend : renderBackend;
+    }
+
+    /**
+     * Gets the backend every gui primitive is currently drawn to.
+     *
+     * @return The current backend.
+     */
+    public static RenderBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Redirects every box, outline and line into the given batches until {@link #endCapture()}.
+     *
+     * @param fill    - The batch to add boxes to.
+     * @param outline - The batch to add outlines and lines to.
+     */
+    static void beginCapture(GuiBatch fill, GuiBatch outline) {
+        minecraftBackend.beginCapture(fill, outline);
+    }
+
+    /**
+     * Stops redirecting geometry, see {@link #beginCapture(GuiBatch, GuiBatch)}.
+     */
+    static void endCapture() {
+        minecraftBackend.endCapture();
+    }
+
+    /**
+     * Gets the number of texts that are waiting to be drawn, see {@link #flushBefore(int)}.
+     *
+     * @return The number of queued texts.
+     */
+    static int getTextMark() {
+        return minecraftBackend.getTextMark();
+    }
+
+    /**
+     * Draws every queued box and outline, and the text that was queued before the given mark. Text queued after the
+     * mark is kept until the batch is flushed.
+     *
+     * @param textMark - The number of queued texts to draw, see {@link #getTextMark()}.
+     */
+    static void flushBefore(int textMark) {
+        minecraftBackend.flushBefore(textMark);
+    }
+
+    /**
+     * Whether geometry is currently being captured.
+     *
+     * @return True if geometry is being redirected.
+     */
+    static boolean isCapturing() {
+        return minecraftBackend.isCapturing();
+    }
+
+    /**
+     * Discards every box, outline and line until the matching {@link #endSkip()}. This is used while retained geometry
+     * is drawn in place of the real geometry.
+     */
+    static void beginSkip() {
+        skipDepth++;
+    }
+
+    /**
+     * Stops discarding geometry, see {@link #beginSkip()}.
+     */
+    static void endSkip() {
+        if (skipDepth > 0)
+            skipDepth--;
+    }
+
+    /**
+     * Whether geometry is currently being discarded.
+     *
+     * @return True if geometry is being discarded.
+     */
+    static boolean isSkipping() {
+        return skipDepth > 0;
+    }
+
     /**
      * Draws a box around the given box, with an alpha of 1f.
      *
@@ -47,28 +226,31 @@ public class GuiUtil {
     }
 
     /**
+     * Draws the given box. If a batch is open, the box is added to it and drawn when the batch ends.
+     *
      * @param c           - The color to draw the box with.
      * @param box         - The box to draw.
      * @param matrixStack - The matrix stack to draw with.
      * @param alpha       - The alpha value to draw with.
      */
     public static void drawBox(Color c, BoxF box, MatrixStack matrixStack, float alpha) {
-        alpha = Math.max(0, Math.min(1, alpha));
-        var acColor = c.getAsFloatArray();
-        var shader = RenderSystem.getShader();
-        RenderSystem.setShader(GameRenderer::getPositionProgram);
-        RenderSystem.enableBlend();
-        var shaderColors = RenderSystem.getShaderColor();
-        RenderSystem.setShaderColor(acColor[0], acColor[1], acColor[2], alpha);
-
-        var bufferBuilder = Tessellator.getInstance().getBuffer();
-        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION);
+        drawBox(PackedColor.withAlpha(c.getArgb(), alpha), box, matrixStack);
+    }
+
+    /**
+     * Draws the given box with a packed color. If a batch is open, the box is added to it and drawn when the batch
+     * ends.
+     *
+     * @param argb        - The packed ARGB color to draw the box with, see {@link PackedColor}.
+     * @param box         - The box to draw.
+     * @param matrixStack - The matrix stack to draw with.
+     */
+    public static void drawBox(int argb, BoxF box, MatrixStack matrixStack) {
+        RenderStats.increment(RenderStats.Counter.DRAW_BOX);
+        if (isSkipping()) return;
+        RenderStats.add(RenderStats.Counter.VERTICES, 4);
         var matrix = matrixStack.peek().getPositionMatrix();
-        drawBox(box, matrix, bufferBuilder);
-//        RenderSystem.setShader(GameRenderer::get);
-        RenderSystem.applyModelViewMatrix();
-        RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
-        RenderSystem.disableBlend();
+        backend.fillRect(matrix, box.getX1(), box.getY1(), box.getX2(), box.getY2(), argb);
     }
 
     /**
@@ -93,7 +275,8 @@ public class GuiUtil {
     }
 
     /**
-     * Draws an outline of the given box with the given color.
+     * Draws an outline of the given box with the given color. If a batch is open, the outline is added to it and drawn
+     * after every box of the batch.
      *
      * @param c           - The color to draw the outline with.
      * @param box         - The outline of a box to draw.
@@ -101,39 +284,23 @@ public class GuiUtil {
      * @param alpha       - The alpha value to draw with.
      */
     public static void drawOutline(Color c, BoxF box, MatrixStack matrixStack, float alpha) {
-        alpha = Math.max(0, Math.min(1, alpha));
-        var acColor = c.getAsFloatArray();
-        RenderSystem.setShader(GameRenderer::getPositionProgram);
-        RenderSystem.enableBlend();
-        RenderSystem.setShaderColor(acColor[0], acColor[1], acColor[2], alpha);
-
-        var matrix = matrixStack.peek().getPositionMatrix();
-        var bufferBuilder = Tessellator.getInstance().getBuffer();
-        bufferBuilder.begin(VertexFormat.DrawMode.DEBUG_LINE_STRIP, VertexFormats.POSITION);
-        drawBox(box, matrix, bufferBuilder);
-        RenderSystem.applyModelViewMatrix();
-        RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
-        RenderSystem.disableBlend();
+        drawOutline(PackedColor.withAlpha(c.getArgb(), alpha), box, matrixStack);
     }
 
     /**
-     * Draws a box around the given box.
+     * Draws an outline of the given box with a packed color. If a batch is open, the outline is added to it and drawn
+     * after every box of the batch.
      *
-     * @param box           - The box to draw.
-     * @param matrix        - The matrix to draw with.
-     * @param bufferBuilder - The buffer builder to draw with.
+     * @param argb        - The packed ARGB color to draw the outline with, see {@link PackedColor}.
+     * @param box         - The outline of a box to draw.
+     * @param matrixStack - The matrix stack to draw with.
      */
-    private static void drawBox(BoxF box, Matrix4f matrix, BufferBuilder bufferBuilder) {
-        var xt1 = box.getTopLeft().x();
-        var yt1 = box.getTopLeft().y();
-        var xt2 = box.getBottomRight().x();
-        var yt2 = box.getBottomRight().y();
-        bufferBuilder.vertex(matrix, xt1, yt1, 0).next();
-        bufferBuilder.vertex(matrix, xt1, yt2, 0).next();
-        bufferBuilder.vertex(matrix, xt2, yt2, 0).next();
-        bufferBuilder.vertex(matrix, xt2, yt1, 0).next();
-        bufferBuilder.vertex(matrix, xt1, yt1, 0).next();
-        Tessellator.getInstance().draw();
+    public static void drawOutline(int argb, BoxF box, MatrixStack matrixStack) {
+        RenderStats.increment(RenderStats.Counter.DRAW_OUTLINE);
+        if (isSkipping()) return;
+        RenderStats.add(RenderStats.Counter.VERTICES, 8);
+        var matrix = matrixStack.peek().getPositionMatrix();
+        backend.outlineRect(matrix, box.getX1(), box.getY1(), box.getX2(), box.getY2(), argb);
     }
 
     /**
@@ -144,18 +311,124 @@ public class GuiUtil {
      * @param alpha       - The alpha value to draw with.
      */
     public static void renderSingleLine(Color color, PointF p1, PointF p2, MatrixStack matrixStack, float alpha) {
-        alpha = Math.max(0, Math.min(1, alpha));
-        var accColor = color.getAsFloatArray();
-        RenderSystem.setShader(GameRenderer::getPositionProgram);
-        RenderSystem.enableBlend();
+        renderSingleLine(PackedColor.withAlpha(color.getArgb(), alpha), p1, p2, matrixStack);
+    }
+
+    /**
+     * Draws a single line to the given coordinates with a packed color.
+     *
+     * @param argb        - The packed ARGB color to draw the line with, see {@link PackedColor}.
+     * @param p1          - The start of the line.
+     * @param p2          - The end of the line.
+     * @param matrixStack - The matrix stack to draw with.
+     */
+    public static void renderSingleLine(int argb, PointF p1, PointF p2, MatrixStack matrixStack) {
+        RenderStats.increment(RenderStats.Counter.DRAW_LINE);
+        if (isSkipping()) return;
+        RenderStats.add(RenderStats.Counter.VERTICES, 2);
         var matrix = matrixStack.peek().getPositionMatrix();
-        var bufferBuilder = Tessellator.getInstance().getBuffer();
-        RenderSystem.setShaderColor(accColor[0], accColor[1], accColor[2], alpha);
-        bufferBuilder.begin(VertexFormat.DrawMode.DEBUG_LINE_STRIP, VertexFormats.POSITION);
-        bufferBuilder.vertex(matrix, p1.x(), p1.y(), 0).next();
-        bufferBuilder.vertex(matrix, p2.x(), p2.y(), 0).next();
-        Tessellator.getInstance().draw();
-        RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
-        RenderSystem.disableBlend();
+        backend.line(matrix, p1.x(), p1.y(), p2.x(), p2.y(), argb);
+    }
+
+    /**
+     * Draws the given text. If a batch is open, the text is added to it and drawn after every box and outline of the
+     * batch.
+     *
+     * @param textRenderer - The text renderer to draw the text with.
+     * @param text         - The text to draw.
+     * @param x            - The x coordinate of the text.
+     * @param y            - The y coordinate of the text.
+     * @param color        - The color of the text.
+     * @param shadow       - Whether the text has a shadow.
+     * @param matrixStack  - The matrix stack to draw with.
+     */
+    public static void drawText(TextRenderer textRenderer, Text text, float x, float y, Color color, boolean shadow, MatrixStack matrixStack) {
+        drawText(textRenderer, text.asOrderedText(), x, y, color, shadow, matrixStack);
+    }
+
+    /**
+     * Draws the given prepared text. If a batch is open, the text is added to it and drawn after every box and outline
+     * of the batch.
+     *
+     * @param textRenderer - The text renderer to draw the text with.
+     * @param text         - The prepared text to draw, see {@link TextCache}.
+     * @param x            - The x coordinate of the text.
+     * @param y            - The y coordinate of the text.
+     * @param color        - The color of the text.
+     * @param shadow       - Whether the text has a shadow.
+     * @param matrixStack  - The matrix stack to draw with.
+     */
+    public static void drawText(TextRenderer textRenderer, OrderedText text, float x, float y, Color color, boolean shadow, MatrixStack matrixStack) {
+        drawText(textRenderer, text, x, y, color.getArgb(), shadow, matrixStack);
+    }
+
+    /**
+     * Draws the given prepared text with a packed color. If a batch is open, the text is added to it and drawn after
+     * every box and outline of the batch.
+     *
+     * @param textRenderer - The text renderer to draw the text with.
+     * @param text         - The prepared text to draw, see {@link TextCache}.
+     * @param x            - The x coordinate of the text.
+     * @param y            - The y coordinate of the text.
+     * @param argb         - The packed ARGB color of the text, see {@link PackedColor}.
+     * @param shadow       - Whether the text has a shadow.
+     * @param matrixStack  - The matrix stack to draw with.
+     */
+    public static void drawText(TextRenderer textRenderer, OrderedText text, float x, float y, int argb, boolean shadow, MatrixStack matrixStack) {
+        RenderStats.increment(RenderStats.Counter.DRAW_TEXT);
+        backend.text(textRenderer, text, x, y, argb, shadow, matrixStack.peek().getPositionMatrix());
+    }
+
+    /**
+     * Writes a single position-color vertex.
+     *
+     * @param consumer - The vertex consumer to write to.
+     * @param matrix   - The matrix to transform the vertex with.
+     * @param x        - The x coordinate of the vertex.
+     * @param y        - The y coordinate of the vertex.
+     * @param argb     - The packed ARGB color of the vertex, see {@link PackedColor}.
+     */
+    public static void vertex(VertexConsumer consumer, Matrix4f matrix, float x, float y, int argb) {
+        consumer.vertex(matrix, x, y, 0).color(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF, argb >>> 24).next();
+    }
+
+    /**
+     * Writes the four position-color vertices of an axis aligned quad.
+     *
+     * @param consumer - The vertex consumer to write to, drawing {@link VertexFormat.DrawMode#QUADS}.
+     * @param matrix   - The matrix to transform the quad with.
+     * @param x1       - The x coordinate of the top left corner.
+     * @param y1       - The y coordinate of the top left corner.
+     * @param x2       - The x coordinate of the bottom right corner.
+     * @param y2       - The y coordinate of the bottom right corner.
+     * @param argb     - The packed ARGB color of the quad.
+     */
+    public static void quad(VertexConsumer consumer, Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        vertex(consumer, matrix, x1, y1, argb);
+        vertex(consumer, matrix, x1, y2, argb);
+        vertex(consumer, matrix, x2, y2, argb);
+        vertex(consumer, matrix, x2, y1, argb);
+    }
+
+    /**
+     * Writes the eight position-color vertices of the four edges of an axis aligned box.
+     *
+     * @param consumer - The vertex consumer to write to, drawing {@link VertexFormat.DrawMode#DEBUG_LINES}.
+     * @param matrix   - The matrix to transform the outline with.
+     * @param x1       - The x coordinate of the top left corner.
+     * @param y1       - The y coordinate of the top left corner.
+     * @param x2       - The x coordinate of the bottom right corner.
+     * @param y2       - The y coordinate of the bottom right corner.
+     * @param argb     - The packed ARGB color of the outline.
+     */
+    public static void outline(VertexConsumer consumer, Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        vertex(consumer, matrix, x1, y1, argb);
+        vertex(consumer, matrix, x1, y2, argb);
+        vertex(consumer, matrix, x1, y2, argb);
+        vertex(consumer, matrix, x2, y2, argb);
+        vertex(consumer, matrix, x2, y2, argb);
+        vertex(consumer, matrix, x2, y1, argb);
+        vertex(consumer, matrix, x2, y1, argb);
+        vertex(consumer, matrix, x1, y1, argb);
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.render.*;
+import net.minecraft.text.OrderedText;
+import org.joml.Matrix4f;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * The render backend that draws to the game window. While a batch is open, boxes, outlines and text are collected and
+ * drawn in three draw calls when the batch is flushed; otherwise every primitive is drawn right away.
+ */
+public class MinecraftRenderBackend implements RenderBackend {
+
+    /**
+     * The batch that collects every box drawn while a batch is open.
+     */
+    private final GuiBatch fillBatch = new GuiBatch(VertexFormat.DrawMode.QUADS);
+
+    /**
+     * The batch that collects every outline and line drawn while a batch is open. It is drawn after the fills.
+     */
+    private final GuiBatch outlineBatch = new GuiBatch(VertexFormat.DrawMode.DEBUG_LINES);
+
+    /**
+     * The batch that collects all text drawn while a batch is open. It is drawn after the outlines.
+     */
+    private final TextBatch textBatch = new TextBatch();
+
+    /**
+     * The batch that boxes are currently added to. This is {@link #fillBatch} unless geometry is being captured.
+     */
+    private GuiBatch fillTarget = fillBatch;
+
+    /**
+     * The batch that outlines and lines are currently added to. This is {@link #outlineBatch} unless geometry is being
+     * captured.
+     */
+    private GuiBatch outlineTarget = outlineBatch;
+
+    @Override
+    public void beginFrame() {
+        RenderStateTracker.invalidate();
+    }
+
+    @Override
+    public void fillRect(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        if (GuiUtil.isBatching()) {
+            fillTarget.quad(matrix, x1, y1, x2, y2, argb);
+            return;
+        }
+        var bufferBuilder = beginImmediate(VertexFormat.DrawMode.QUADS);
+        GuiUtil.quad(bufferBuilder, matrix, x1, y1, x2, y2, argb);
+        endImmediate();
+    }
+
+    @Override
+    public void outlineRect(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        if (GuiUtil.isBatching()) {
+            outlineTarget.outline(matrix, x1, y1, x2, y2, argb);
+            return;
+        }
+        var bufferBuilder = beginImmediate(VertexFormat.DrawMode.DEBUG_LINES);
+        GuiUtil.outline(bufferBuilder, matrix, x1, y1, x2, y2, argb);
+        endImmediate();
+    }
+
+    @Override
+    public void line(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        if (GuiUtil.isBatching()) {
+            outlineTarget.line(matrix, x1, y1, x2, y2, argb);
+            return;
+        }
+        var bufferBuilder = beginImmediate(VertexFormat.DrawMode.DEBUG_LINES);
+        GuiUtil.vertex(bufferBuilder, matrix, x1, y1, argb);
+        GuiUtil.vertex(bufferBuilder, matrix, x2, y2, argb);
+        endImmediate();
+    }
+
+    @Override
+    public void text(TextRenderer textRenderer, OrderedText text, float x, float y, int argb, boolean shadow, Matrix4f matrix) {
+        textBatch.add(textRenderer, text, x, y, argb, shadow, matrix);
+        if (!GuiUtil.isBatching())
+            textBatch.flush();
+    }
+
+    /**
+     * Draws every batch. Fills are drawn first, then every outline on top of them, and then all text on top of both.
+     */
+    @Override
+    public void flush() {
+        fillBatch.flush();
+        outlineBatch.flush();
+        textBatch.flush();
+    }
+
+    /**
+     * Gets the number of texts that are waiting to be drawn, to be passed to {@link #flushBefore(int)} later.
+     *
+     * @return The number of texts in the text batch.
+     */
+    int getTextMark() {
+        return textBatch.size();
+    }
+
+    /**
+     * Draws every box and outline, and only the text that was added before the given mark. Text added after the mark
+     * stays in the batch, so that it is still drawn on top of anything drawn in between.
+     *
+     * @param textMark - The number of texts to draw, see {@link #getTextMark()}.
+     */
+    void flushBefore(int textMark) {
+        fillBatch.flush();
+        outlineBatch.flush();
+        textBatch.flush(textMark);
+    }
+
+    @Override
+    public void endFrame() {
+        RenderStateTracker.restore();
+        RenderStateTracker.endFrame();
+    }
+
+    @Override
+    public boolean isRetainedSupported() {
+        return true;
+    }
+
+    /**
+     * Redirects every box, outline and line into the given batches until {@link #endCapture()}.
+     *
+     * @param fill    - The batch to add boxes to.
+     * @param outline - The batch to add outlines and lines to.
+     */
+    void beginCapture(GuiBatch fill, GuiBatch outline) {
+        fillTarget = fill;
+        outlineTarget = outline;
+    }
+
+    /**
+     * Stops redirecting geometry, see {@link #beginCapture(GuiBatch, GuiBatch)}.
+     */
+    void endCapture() {
+        fillTarget = fillBatch;
+        outlineTarget = outlineBatch;
+    }
+
+    /**
+     * Whether geometry is currently being captured.
+     *
+     * @return True if geometry is being redirected.
+     */
+    boolean isCapturing() {
+        return fillTarget != fillBatch;
+    }
+
+    /**
+     * Prepares the render state for a single position-color draw outside of a batch, and starts the shared buffer.
+     *
+     * @param drawMode - The draw mode to use.
+     * @return The buffer to write the vertices to.
+     */
+    private static BufferBuilder beginImmediate(VertexFormat.DrawMode drawMode) {
+        RenderStateTracker.invalidate();
+        RenderStateTracker.setShader(GameRenderer::getPositionColorProgram);
+        RenderStateTracker.enableBlend();
+        RenderStateTracker.defaultBlendFunc();
+        RenderStateTracker.setShaderColor(1f, 1f, 1f, 1f);
+        var bufferBuilder = Tessellator.getInstance().getBuffer();
+        bufferBuilder.begin(drawMode, VertexFormats.POSITION_COLOR);
+        return bufferBuilder;
+    }
+
+    /**
+     * Draws the shared buffer started by {@link #beginImmediate(VertexFormat.DrawMode)} and restores the render state.
+     */
+    private static void endImmediate() {
+        Tessellator.getInstance().draw();
+        RenderStateTracker.restore();
+    }
+}
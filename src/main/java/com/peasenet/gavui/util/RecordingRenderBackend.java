@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.text.OrderedText;
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A render backend that does not draw anything, but records every command it is given. It needs no GL context, so a
+ * tree of gui elements can be rendered with it off-screen, in a benchmark or on a machine without a GPU.
+ * Commands are kept in parallel primitive arrays that are reused after {@link #clear()}, so recording does not
+ * allocate once the arrays are large enough. Coordinates are recorded after being transformed by the matrix.
+ */
+public class RecordingRenderBackend implements RenderBackend {
+
+    /**
+     * The type of a filled rectangle.
+     */
+    public static final int FILL_RECT = 0;
+
+    /**
+     * The type of the outline of a rectangle.
+     */
+    public static final int OUTLINE_RECT = 1;
+
+    /**
+     * The type of a single line.
+     */
+    public static final int LINE = 2;
+
+    /**
+     * The type of a text.
+     */
+    public static final int TEXT = 3;
+
+    /**
+     * The type of every command.
+     */
+    private byte[] types = new byte[64];
+
+    /**
+     * The packed ARGB color of every command.
+     */
+    private int[] colors = new int[64];
+
+    /**
+     * Four coordinates per command: x1, y1, x2 and y2. Text only uses the first two.
+     */
+    private float[] coords = new float[64 * 4];
+
+    /**
+     * The text of every text command, and null for every other command.
+     */
+    private OrderedText[] texts = new OrderedText[64];
+
+    /**
+     * Whether each text command has a shadow.
+     */
+    private boolean[] shadows = new boolean[64];
+
+    /**
+     * The number of recorded commands.
+     */
+    private int size = 0;
+
+    /**
+     * The number of frames that ended since the last {@link #clear()}.
+     */
+    private int frames = 0;
+
+    @Override
+    public void beginFrame() {
+    }
+
+    @Override
+    public void fillRect(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        add(FILL_RECT, matrix, x1, y1, x2, y2, argb);
+    }
+
+    @Override
+    public void outlineRect(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        add(OUTLINE_RECT, matrix, x1, y1, x2, y2, argb);
+    }
+
+    @Override
+    public void line(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        add(LINE, matrix, x1, y1, x2, y2, argb);
+    }
+
+    @Override
+    public void text(TextRenderer textRenderer, OrderedText text, float x, float y, int argb, boolean shadow, Matrix4f matrix) {
+        var i = add(TEXT, matrix, x, y, x, y, argb);
+        texts[i] = text;
+        shadows[i] = shadow;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void endFrame() {
+        frames++;
+    }
+
+    /**
+     * Forgets every recorded command and frame, keeping the arrays for the next recording.
+     */
+    public void clear() {
+        Arrays.fill(texts, 0, size, null);
+        size = 0;
+        frames = 0;
+    }
+
+    /**
+     * Gets the number of recorded commands.
+     *
+     * @return The number of commands.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of frames that ended since the last {@link #clear()}.
+     *
+     * @return The number of frames.
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Counts the recorded commands of the given type.
+     *
+     * @param type - The type to count, such as {@link #FILL_RECT}.
+     * @return The number of commands of that type.
+     */
+    public int count(int type) {
+        var count = 0;
+        for (int i = 0; i < size; i++)
+            if (types[i] == type) count++;
+        return count;
+    }
+
+    /**
+     * Gets the type of the command at the given index.
+     *
+     * @param index - The index of the command.
+     * @return The type, such as {@link #FILL_RECT}.
+     */
+    public int getType(int index) {
+        return types[checkIndex(index)];
+    }
+
+    /**
+     * Gets the packed ARGB color of the command at the given index.
+     *
+     * @param index - The index of the command.
+     * @return The color.
+     */
+    public int getColor(int index) {
+        return colors[checkIndex(index)];
+    }
+
+    /**
+     * Gets the transformed x coordinate of the first point of the command at the given index.
+     *
+     * @param index - The index of the command.
+     * @return The x coordinate.
+     */
+    public float getX1(int index) {
+        return coords[checkIndex(index) * 4];
+    }
+
+    /**
+     * Gets the transformed y coordinate of the first point of the command at the given index.
+     *
+     * @param index - The index of the command.
+     * @return The y coordinate.
+     */
+    public float getY1(int index) {
+        return coords[checkIndex(index) * 4 + 1];
+    }
+
+    /**
+     * Gets the transformed x coordinate of the second point of the command at the given index.
+     *
+     * @param index - The index of the command.
+     * @return The x coordinate.
+     */
+    public float getX2(int index) {
+        return coords[checkIndex(index) * 4 + 2];
+    }
+
+    /**
+     * Gets the transformed y coordinate of the second point of the command at the given index.
+     *
+     * @param index - The index of the command.
+     * @return The y coordinate.
+     */
+    public float getY2(int index) {
+        return coords[checkIndex(index) * 4 + 3];
+    }
+
+    /**
+     * Gets the text of the command at the given index.
+     *
+     * @param index - The index of the command.
+     * @return The text, or null if the command is not a text.
+     */
+    public OrderedText getText(int index) {
+        return texts[checkIndex(index)];
+    }
+
+    /**
+     * Whether the text command at the given index has a shadow.
+     *
+     * @param index - The index of the command.
+     * @return True if the command is a text with a shadow.
+     */
+    public boolean hasShadow(int index) {
+        return shadows[checkIndex(index)];
+    }
+
+    /**
+     * Records a command, growing the arrays if needed.
+     *
+     * @return The index of the new command.
+     */
+    private int add(int type, Matrix4f matrix, float x1, float y1, float x2, float y2, int argb) {
+        if (size == types.length) {
+            var capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            coords = Arrays.copyOf(coords, capacity * 4);
+            texts = Arrays.copyOf(texts, capacity);
+            shadows = Arrays.copyOf(shadows, capacity);
+        }
+        var i = size++;
+        types[i] = (byte) type;
+        colors[i] = argb;
+        texts[i] = null;
+        shadows[i] = false;
+        var c = i * 4;
+        coords[c] = matrix.m00() * x1 + matrix.m10() * y1 + matrix.m30();
+        coords[c + 1] = matrix.m01() * x1 + matrix.m11() * y1 + matrix.m31();
+        coords[c + 2] = matrix.m00() * x2 + matrix.m10() * y2 + matrix.m30();
+        coords[c + 3] = matrix.m01() * x2 + matrix.m11() * y2 + matrix.m31();
+        return i;
+    }
+
+    /**
+     * Checks that the given index is the index of a recorded command.
+     *
+     * @return The index.
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for " + size + " commands.");
+        return index;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.text.OrderedText;
+import org.joml.Matrix4f;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * The target every gui primitive is drawn to. {@link GuiUtil} hands each box, outline, line and text to the current
+ * backend, see {@link GuiUtil#setBackend(RenderBackend)}.
+ * Colors are packed ARGB ints, and coordinates are in gui space, to be transformed by the given matrix.
+ */
+public interface RenderBackend {
+
+    /**
+     * Called when an outermost batch is opened, before anything of the frame is drawn.
+     */
+    void beginFrame();
+
+    /**
+     * Fills the given rectangle.
+     *
+     * @param matrix - The matrix to transform the rectangle with.
+     * @param x1     - The x coordinate of the top left corner.
+     * @param y1     - The y coordinate of the top left corner.
+     * @param x2     - The x coordinate of the bottom right corner.
+     * @param y2     - The y coordinate of the bottom right corner.
+     * @param argb   - The packed ARGB color of the rectangle.
+     */
+    void fillRect(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb);
+
+    /**
+     * Draws the four edges of the given rectangle.
+     *
+     * @param matrix - The matrix to transform the rectangle with.
+     * @param x1     - The x coordinate of the top left corner.
+     * @param y1     - The y coordinate of the top left corner.
+     * @param x2     - The x coordinate of the bottom right corner.
+     * @param y2     - The y coordinate of the bottom right corner.
+     * @param argb   - The packed ARGB color of the outline.
+     */
+    void outlineRect(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb);
+
+    /**
+     * Draws a single line.
+     *
+     * @param matrix - The matrix to transform the line with.
+     * @param x1     - The x coordinate of the start of the line.
+     * @param y1     - The y coordinate of the start of the line.
+     * @param x2     - The x coordinate of the end of the line.
+     * @param y2     - The y coordinate of the end of the line.
+     * @param argb   - The packed ARGB color of the line.
+     */
+    void line(Matrix4f matrix, float x1, float y1, float x2, float y2, int argb);
+
+    /**
+     * Draws the given prepared text.
+     *
+     * @param textRenderer - The text renderer to draw the text with. Backends without a GL context may ignore it.
+     * @param text         - The prepared text to draw.
+     * @param x            - The x coordinate of the text.
+     * @param y            - The y coordinate of the text.
+     * @param argb         - The packed ARGB color of the text.
+     * @param shadow       - Whether the text has a shadow.
+     * @param matrix       - The matrix to transform the text with.
+     */
+    void text(TextRenderer textRenderer, OrderedText text, float x, float y, int argb, boolean shadow, Matrix4f matrix);
+
+    /**
+     * Draws everything that was handed to this backend but not drawn yet.
+     */
+    void flush();
+
+    /**
+     * Called after the outermost batch was flushed.
+     */
+    void endFrame();
+
+    /**
+     * Whether gui elements may keep their geometry on the GPU with this backend, see {@link RetainedGeometry}.
+     *
+     * @return True if retained geometry can be used.
+     */
+    default boolean isRetainedSupported() {
+        return false;
+    }
+}
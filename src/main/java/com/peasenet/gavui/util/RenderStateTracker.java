@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.gl.ShaderProgram;
+
+import java.util.function.Supplier;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Remembers the shader, blend and shader color state set by GavUI during a frame, and only forwards a change to
+ * {@link RenderSystem} when it actually differs from the current state. Anything outside GavUI may change the render
+ * state between our draws, so the remembered state is forgotten with {@link #invalidate()} whenever that can happen.
+ * A frame ends with {@link #endFrame()}, which also records how many transitions were skipped during it.
+ */
+public class RenderStateTracker {
+
+    /**
+     * The shader program that was last set.
+     */
+    private static ShaderProgram shader;
+
+    /**
+     * Whether blending is known to be enabled, disabled, or unknown (null).
+     */
+    private static Boolean blend;
+
+    /**
+     * Whether the default blend function is known to be set.
+     */
+    private static boolean defaultBlendFunc;
+
+    /**
+     * Whether the shader color below is known to be the current shader color.
+     */
+    private static boolean colorKnown;
+
+    /**
+     * The shader color that was last set.
+     */
+    private static float red, green, blue, alpha;
+
+    /**
+     * The number of transitions that were skipped during the current frame.
+     */
+    private static int skipped;
+
+    /**
+     * The number of transitions that were issued during the current frame.
+     */
+    private static int issued;
+
+    /**
+     * The number of transitions that were skipped during the last frame.
+     */
+    private static int lastSkipped;
+
+    /**
+     * The number of transitions that were issued during the last frame.
+     */
+    private static int lastIssued;
+
+    private RenderStateTracker() {
+    }
+
+    /**
+     * Sets the current shader, if it is not already set.
+     *
+     * @param supplier - The supplier of the shader program.
+     */
+    public static void setShader(Supplier<ShaderProgram> supplier) {
+        var program = supplier.get();
+        if (program != null && program == shader && program == RenderSystem.getShader()) {
+            skipped++;
+            return;
+        }
+        RenderSystem.setShader(supplier);
+        shader = program;
+        issued++;
+    }
+
+    /**
+     * Enables blending, if it is not already enabled.
+     */
+    public static void enableBlend() {
+        if (Boolean.TRUE.equals(blend)) {
+            skipped++;
+            return;
+        }
+        RenderSystem.enableBlend();
+        blend = true;
+        issued++;
+    }
+
+    /**
+     * Disables blending, if it is not already disabled.
+     */
+    public static void disableBlend() {
+        if (Boolean.FALSE.equals(blend)) {
+            skipped++;
+            return;
+        }
+        RenderSystem.disableBlend();
+        blend = false;
+        issued++;
+    }
+
+    /**
+     * Sets the default blend function, if it is not already set.
+     */
+    public static void defaultBlendFunc() {
+        if (defaultBlendFunc) {
+            skipped++;
+            return;
+        }
+        RenderSystem.defaultBlendFunc();
+        defaultBlendFunc = true;
+        issued++;
+    }
+
+    /**
+     * Sets the shader color, if it is not already set.
+     *
+     * @param r - The red value, between 0 and 1.
+     * @param g - The green value, between 0 and 1.
+     * @param b - The blue value, between 0 and 1.
+     * @param a - The alpha value, between 0 and 1.
+     */
+    public static void setShaderColor(float r, float g, float b, float a) {
+        if (colorKnown && red == r && green == g && blue == b && alpha == a) {
+            skipped++;
+            return;
+        }
+        RenderSystem.setShaderColor(r, g, b, a);
+        red = r;
+        green = g;
+        blue = b;
+        alpha = a;
+        colorKnown = true;
+        issued++;
+    }
+
+    /**
+     * Restores the state that the rest of the game expects after GavUI is done drawing: a white shader color and
+     * blending disabled.
+     */
+    public static void restore() {
+        setShaderColor(1f, 1f, 1f, 1f);
+        disableBlend();
+    }
+
+    /**
+     * Forgets the remembered state, so that the next transition of every kind is issued. This must be called whenever
+     * something other than GavUI may have changed the render state.
+     */
+    public static void invalidate() {
+        shader = null;
+        blend = null;
+        defaultBlendFunc = false;
+        colorKnown = false;
+    }
+
+    /**
+     * Ends the current frame. The counters of this frame become available through {@link #getSkippedTransitions()}
+     * and {@link #getIssuedTransitions()}, and the remembered state is forgotten.
+     */
+    public static void endFrame() {
+        lastSkipped = skipped;
+        lastIssued = issued;
+        skipped = 0;
+        issued = 0;
+        invalidate();
+    }
+
+    /**
+     * Gets the number of state transitions that were skipped during the last frame.
+     *
+     * @return The number of skipped transitions.
+     */
+    public static int getSkippedTransitions() {
+        return lastSkipped;
+    }
+
+    /**
+     * Gets the number of state transitions that were forwarded to {@link RenderSystem} during the last frame.
+     *
+     * @return The number of issued transitions.
+     */
+    public static int getIssuedTransitions() {
+        return lastIssued;
+    }
+}
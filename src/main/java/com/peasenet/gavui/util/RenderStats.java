@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Per-frame statistics of what GavUI draws. Every counter is collected for the current frame, published for the last
+ * complete frame, and summed over rolling one second windows.
+ * A frame spans from {@link #beginFrame()} to {@link #endFrame()}, which are called around the render of every screen
+ * once {@link #register()} has been called, so a screen that renders several guis counts as a single frame. Guis that
+ * are rendered outside of a frame, for example on the hud, count one frame per outermost batch.
+ * Nothing is collected until statistics are enabled with {@link #setEnabled(boolean)}, which an open
+ * {@link com.peasenet.gavui.GuiRenderStats} does, so screens that do not show them do no work for them.
+ */
+public class RenderStats {
+
+    /**
+     * The counters that are collected every frame.
+     */
+    public enum Counter {
+        /**
+         * Calls to {@link GuiUtil#drawBox}.
+         */
+        DRAW_BOX,
+        /**
+         * Calls to {@link GuiUtil#drawOutline}.
+         */
+        DRAW_OUTLINE,
+        /**
+         * Calls to {@link GuiUtil#renderSingleLine}.
+         */
+        DRAW_LINE,
+        /**
+         * Calls to {@link GuiUtil#drawText}, which every gui text goes through.
+         */
+        DRAW_TEXT,
+        /**
+         * Vertices emitted for boxes, outlines and lines. Text is not included.
+         */
+        VERTICES,
+        /**
+         * Render state changes that were forwarded to the render system, see {@link RenderStateTracker}.
+         */
+        STATE_CHANGES,
+        /**
+         * Gui elements that were rendered.
+         */
+        WIDGETS_VISITED,
+        /**
+         * Gui elements that were skipped because they are hidden.
+         */
+        WIDGETS_HIDDEN
+    }
+
+    /**
+     * The number of counters.
+     */
+    private static final int COUNTERS = Counter.values().length;
+
+    /**
+     * The counters of the current frame.
+     */
+    private static final int[] current = new int[COUNTERS];
+
+    /**
+     * The counters of the last complete frame.
+     */
+    private static final int[] lastFrame = new int[COUNTERS];
+
+    /**
+     * The sums of the counters in the current one second window.
+     */
+    private static final long[] window = new long[COUNTERS];
+
+    /**
+     * The sums of the counters in the last complete one second window.
+     */
+    private static final long[] lastSecond = new long[COUNTERS];
+
+    /**
+     * The number of frames in the current one second window.
+     */
+    private static int windowFrames = 0;
+
+    /**
+     * The number of frames in the last complete one second window.
+     */
+    private static int framesPerSecond = 0;
+
+    /**
+     * When the current one second window started, in nanoseconds.
+     */
+    private static long windowStart = System.nanoTime();
+
+    /**
+     * Incremented every time a one second window is completed.
+     */
+    private static int secondVersion = 0;
+
+    /**
+     * Whether statistics are collected. They are off until enabled, see {@link #setEnabled(boolean)}.
+     */
+    private static boolean enabled = false;
+
+    /**
+     * Whether a frame was started with {@link #beginFrame()} and has not ended yet.
+     */
+    private static boolean inFrame = false;
+
+    private RenderStats() {
+    }
+
+    /**
+     * Increments the given counter of the current frame.
+     *
+     * @param counter - The counter to increment.
+     */
+    public static void increment(Counter counter) {
+        if (enabled)
+            current[counter.ordinal()]++;
+    }
+
+    /**
+     * Adds the given amount to the given counter of the current frame.
+     *
+     * @param counter - The counter to add to.
+     * @param amount  - The amount to add.
+     */
+    public static void add(Counter counter, int amount) {
+        if (enabled)
+            current[counter.ordinal()] += amount;
+    }
+
+    /**
+     * Makes every screen render count as one frame, see {@link #beginFrame()}.
+     */
+    public static void register() {
+        ScreenEvents.AFTER_INIT.register((client, screen, scaledWidth, scaledHeight) -> {
+            ScreenEvents.beforeRender(screen).register((s, drawContext, mouseX, mouseY, tickDelta) -> beginFrame());
+            ScreenEvents.afterRender(screen).register((s, drawContext, mouseX, mouseY, tickDelta) -> endFrame());
+        });
+    }
+
+    /**
+     * Starts a frame. Every batch drawn until {@link #endFrame()} is counted towards it. If the last frame was never
+     * ended, it is ended first.
+     */
+    public static void beginFrame() {
+        if (!enabled) return;
+        if (inFrame)
+            publish();
+        inFrame = true;
+    }
+
+    /**
+     * Ends the frame started by {@link #beginFrame()}, publishing its counters.
+     */
+    public static void endFrame() {
+        if (!enabled || !inFrame) return;
+        inFrame = false;
+        publish();
+    }
+
+    /**
+     * Called by {@link GuiUtil#endBatch()} when the outermost batch ends. Outside of a frame, the batch is published as
+     * a frame of its own.
+     */
+    static void endBatch() {
+        if (!enabled) return;
+        add(Counter.STATE_CHANGES, RenderStateTracker.getIssuedTransitions());
+        if (!inFrame)
+            publish();
+    }
+
+    /**
+     * Publishes the counters of the current frame, and rolls the one second window over if a second has passed.
+     */
+    private static void publish() {
+        for (int i = 0; i < COUNTERS; i++) {
+            lastFrame[i] = current[i];
+            window[i] += current[i];
+            current[i] = 0;
+        }
+        windowFrames++;
+        var now = System.nanoTime();
+        if (now - windowStart < 1_000_000_000L) return;
+        for (int i = 0; i < COUNTERS; i++) {
+            lastSecond[i] = window[i];
+            window[i] = 0;
+        }
+        framesPerSecond = windowFrames;
+        windowFrames = 0;
+        windowStart = now;
+        secondVersion++;
+    }
+
+    /**
+     * Gets the value of the given counter in the last complete frame.
+     *
+     * @param counter - The counter to get.
+     * @return The value of the counter.
+     */
+    public static int getLastFrame(Counter counter) {
+        return lastFrame[counter.ordinal()];
+    }
+
+    /**
+     * Gets the sum of the given counter over the last complete one second window.
+     *
+     * @param counter - The counter to get.
+     * @return The sum of the counter.
+     */
+    public static long getPerSecond(Counter counter) {
+        return lastSecond[counter.ordinal()];
+    }
+
+    /**
+     * Gets the average of the given counter per frame over the last complete one second window.
+     *
+     * @param counter - The counter to get.
+     * @return The average of the counter, or 0 if no frame was drawn.
+     */
+    public static float getAveragePerFrame(Counter counter) {
+        if (framesPerSecond == 0) return 0;
+        return lastSecond[counter.ordinal()] / (float) framesPerSecond;
+    }
+
+    /**
+     * Gets the number of gui frames drawn in the last complete one second window.
+     *
+     * @return The number of frames.
+     */
+    public static int getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    /**
+     * Gets a version number that is incremented every time a one second window is completed, so that displays of the
+     * statistics only need to update once per second.
+     *
+     * @return The version of the per second statistics.
+     */
+    public static int getSecondVersion() {
+        return secondVersion;
+    }
+
+    /**
+     * Whether statistics are collected.
+     *
+     * @return True if statistics are collected.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether statistics are collected. Disabling it resets every counter, and ends the current frame without
+     * publishing it.
+     *
+     * @param enabled - Whether to collect statistics.
+     */
+    public static void setEnabled(boolean enabled) {
+        RenderStats.enabled = enabled;
+        if (!enabled) {
+            inFrame = false;
+            reset();
+        }
+    }
+
+    /**
+     * Resets every counter and starts a new one second window.
+     */
+    public static void reset() {
+        for (int i = 0; i < COUNTERS; i++) {
+            current[i] = 0;
+            lastFrame[i] = 0;
+            window[i] = 0;
+            lastSecond[i] = 0;
+        }
+        windowFrames = 0;
+        framesPerSecond = 0;
+        windowStart = System.nanoTime();
+        secondVersion++;
+    }
+}
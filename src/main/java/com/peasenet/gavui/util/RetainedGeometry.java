@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.VertexFormat;
+import org.joml.Matrix4f;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * The geometry of a retained gui, kept on the GPU so that it can be drawn again without rebuilding any vertices.
+ * While capturing, every box, outline and line drawn through {@link GuiUtil} is collected and then uploaded. While
+ * reusing, that geometry is discarded instead, and the uploaded buffers are drawn in its place.
+ */
+public class RetainedGeometry implements AutoCloseable {
+
+    /**
+     * The batch that collects the boxes while capturing.
+     */
+    private final GuiBatch fillCapture = new GuiBatch(VertexFormat.DrawMode.QUADS);
+
+    /**
+     * The batch that collects the outlines and lines while capturing.
+     */
+    private final GuiBatch outlineCapture = new GuiBatch(VertexFormat.DrawMode.DEBUG_LINES);
+
+    /**
+     * The matrix the geometry was captured with. Vertices are transformed when they are captured, so the geometry is
+     * only valid for this matrix.
+     */
+    private final Matrix4f matrix = new Matrix4f();
+
+    /**
+     * The GPU buffer holding the boxes.
+     */
+    private VertexBuffer fillBuffer;
+
+    /**
+     * The GPU buffer holding the outlines and lines.
+     */
+    private VertexBuffer outlineBuffer;
+
+    /**
+     * Whether the fill buffer has anything in it.
+     */
+    private boolean hasFill;
+
+    /**
+     * Whether the outline buffer has anything in it.
+     */
+    private boolean hasOutline;
+
+    /**
+     * Whether anything has been uploaded yet.
+     */
+    private boolean uploaded;
+
+    /**
+     * The frame the geometry was captured in, see {@link GuiUtil#getFrame()}.
+     */
+    private long capturedFrame;
+
+    /**
+     * The settings version the geometry was captured with, see {@link GavUISettings#getVersion()}.
+     */
+    private int settingsVersion;
+
+    /**
+     * The number of texts that were queued when the current capture or reuse started, see
+     * {@link GuiUtil#getTextMark()}. Text queued after it belongs to the retained gui.
+     */
+    private int textMark;
+
+    /**
+     * Whether geometry can be retained right now. Retained guis inside a retained gui are drawn as part of it, and
+     * backends that do not draw to the game window never retain geometry.
+     *
+     * @return True if the backend supports it and nothing is being captured or reused already.
+     */
+    public static boolean isAvailable() {
+        return GuiUtil.getBackend().isRetainedSupported() && !GuiUtil.isCapturing() && !GuiUtil.isSkipping();
+    }
+
+    /**
+     * Whether the uploaded geometry can be drawn again with the given matrix. Changes made during the frame the
+     * geometry was captured in count as newer than the geometry, as they may have happened after it was drawn.
+     *
+     * @param matrix        - The matrix that the gui would be drawn with.
+     * @param changeVersion - The frame in which the gui or its children last changed.
+     * @return True if the geometry does not have to be captured again.
+     */
+    public boolean isValid(Matrix4f matrix, long changeVersion) {
+        return uploaded && changeVersion < capturedFrame && settingsVersion == GavUISettings.getVersion()
+                && this.matrix.equals(matrix);
+    }
+
+    /**
+     * Starts capturing geometry.
+     *
+     * @param matrix - The matrix that the gui is drawn with.
+     */
+    public void beginCapture(Matrix4f matrix) {
+        this.matrix.set(matrix);
+        capturedFrame = GuiUtil.getFrame();
+        settingsVersion = GavUISettings.getVersion();
+        textMark = GuiUtil.getTextMark();
+        GuiUtil.beginCapture(fillCapture, outlineCapture);
+    }
+
+    /**
+     * Stops capturing geometry and uploads everything that was captured.
+     */
+    public void endCapture() {
+        GuiUtil.endCapture();
+        hasFill = !fillCapture.isEmpty();
+        hasOutline = !outlineCapture.isEmpty();
+        if (hasFill) {
+            if (fillBuffer == null)
+                fillBuffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+            upload(fillBuffer, fillCapture);
+        }
+        if (hasOutline) {
+            if (outlineBuffer == null)
+                outlineBuffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+            upload(outlineBuffer, outlineCapture);
+        }
+        uploaded = true;
+    }
+
+    /**
+     * Uploads the contents of a batch into a GPU buffer, emptying the batch.
+     *
+     * @param buffer - The buffer to upload to.
+     * @param batch  - The batch to upload.
+     */
+    private static void upload(VertexBuffer buffer, GuiBatch batch) {
+        buffer.bind();
+        buffer.upload(batch.end());
+        VertexBuffer.unbind();
+    }
+
+    /**
+     * Starts reusing the uploaded geometry. Everything drawn until {@link #endReuse()} is discarded.
+     */
+    public void beginReuse() {
+        textMark = GuiUtil.getTextMark();
+        GuiUtil.beginSkip();
+    }
+
+    /**
+     * Stops reusing the uploaded geometry.
+     */
+    public void endReuse() {
+        GuiUtil.endSkip();
+    }
+
+    /**
+     * Draws everything that was queued before the current capture or reuse started, and then the uploaded geometry in
+     * its place. The text of the retained gui stays queued, so that it is drawn on top of the geometry.
+     */
+    public void flushAndDraw() {
+        GuiUtil.flushBefore(textMark);
+        draw();
+    }
+
+    /**
+     * Draws the uploaded geometry, outlines on top of boxes.
+     */
+    public void draw() {
+        if (!hasFill && !hasOutline) return;
+        RenderStateTracker.setShader(GameRenderer::getPositionColorProgram);
+        RenderStateTracker.enableBlend();
+        RenderStateTracker.defaultBlendFunc();
+        RenderStateTracker.setShaderColor(1f, 1f, 1f, 1f);
+        if (hasFill)
+            draw(fillBuffer);
+        if (hasOutline)
+            draw(outlineBuffer);
+        VertexBuffer.unbind();
+    }
+
+    /**
+     * Draws a single GPU buffer with the current shader.
+     *
+     * @param buffer - The buffer to draw.
+     */
+    private static void draw(VertexBuffer buffer) {
+        buffer.bind();
+        buffer.draw(RenderSystem.getModelViewMatrix(), RenderSystem.getProjectionMatrix(), RenderSystem.getShader());
+    }
+
+    /**
+     * Releases the GPU buffers. The geometry will be captured again the next time it is needed.
+     */
+    @Override
+    public void close() {
+        if (fillBuffer != null)
+            fillBuffer.close();
+        if (outlineBuffer != null)
+            outlineBuffer.close();
+        fillBuffer = null;
+        outlineBuffer = null;
+        hasFill = false;
+        hasOutline = false;
+        uploaded = false;
+    }
+}
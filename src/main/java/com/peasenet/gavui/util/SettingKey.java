@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import com.peasenet.gavui.color.Color;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A typed handle to a setting. A key is registered once, and resolves to a slot that its value is read from without
+ * hashing the name of the setting, see {@link GavUISettings#get(SettingKey)}.
+ *
+ * @param <T> - The type of the value of the setting.
+ */
+public final class SettingKey<T> {
+
+    /**
+     * The name of the setting, as it is stored in the settings file.
+     */
+    private final String name;
+
+    /**
+     * The type of the value of the setting.
+     */
+    private final Class<T> type;
+
+    /**
+     * The value used when the setting is missing or has the wrong type.
+     */
+    private final T defaultValue;
+
+    /**
+     * The slot the value of the setting is stored in.
+     */
+    final int slot;
+
+    SettingKey(String name, Class<T> type, T defaultValue, int slot) {
+        this.name = name;
+        this.type = type;
+        this.defaultValue = defaultValue;
+        this.slot = slot;
+    }
+
+    /**
+     * Registers a color setting, or gets the key it was already registered with.
+     *
+     * @param name         - The name of the setting.
+     * @param defaultValue - The default color.
+     * @return The key of the setting.
+     */
+    public static SettingKey<Color> ofColor(String name, Color defaultValue) {
+        return GavUISettings.register(name, Color.class, defaultValue);
+    }
+
+    /**
+     * Registers a float setting, or gets the key it was already registered with.
+     *
+     * @param name         - The name of the setting.
+     * @param defaultValue - The default value.
+     * @return The key of the setting.
+     */
+    public static SettingKey<Float> ofFloat(String name, float defaultValue) {
+        return GavUISettings.register(name, Float.class, defaultValue);
+    }
+
+    /**
+     * Registers a boolean setting, or gets the key it was already registered with.
+     *
+     * @param name         - The name of the setting.
+     * @param defaultValue - The default value.
+     * @return The key of the setting.
+     */
+    public static SettingKey<Boolean> ofBool(String name, boolean defaultValue) {
+        return GavUISettings.register(name, Boolean.class, defaultValue);
+    }
+
+    /**
+     * Gets the name of the setting.
+     *
+     * @return The name of the setting.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the type of the value of the setting.
+     *
+     * @return The type of the value.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the default value of the setting.
+     *
+     * @return The default value.
+     */
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
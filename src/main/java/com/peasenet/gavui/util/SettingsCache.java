@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import com.peasenet.gavui.GavUI;
+import com.peasenet.gavui.color.Color;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A binary cache of the settings file, stored next to it as settings.bin, so that the settings can be loaded without
+ * parsing json. The json file stays the source of truth: the cache records the modification time and size of the json
+ * file it was written for, and is ignored as soon as either differs.
+ * <p>
+ * The cache starts with a header of the magic number, the format version, the modification time and size of the json
+ * file and the number of entries. Every entry is the UTF-8 name of the setting, a type byte and the value. A CRC32 of
+ * everything before it ends the file. The cache is read into memory in one go. If it is missing,
+ * outdated, corrupt or holds a type this format does not know, it is not used, and the json is parsed instead.
+ */
+class SettingsCache {
+
+    /**
+     * The magic number at the start of the cache, "GVUI".
+     */
+    private static final int MAGIC = 0x47565549;
+
+    /**
+     * The version of the format. Caches of other versions are ignored.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * The size of the header: the magic number, format version, modification time, size and number of entries.
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+
+    /**
+     * The largest cache that is read. A few settings take a few hundred bytes, so anything larger is treated as corrupt.
+     */
+    private static final long MAX_SIZE = 1 << 20;
+
+    /**
+     * The type of a boolean, stored as a single byte.
+     */
+    private static final byte TYPE_BOOLEAN = 0;
+
+    /**
+     * The type of a whole number, stored as a long.
+     */
+    private static final byte TYPE_LONG = 1;
+
+    /**
+     * The type of a number with a fraction, stored as a double.
+     */
+    private static final byte TYPE_DOUBLE = 2;
+
+    /**
+     * The type of a string, stored like names.
+     */
+    private static final byte TYPE_STRING = 3;
+
+    /**
+     * The type of a color, stored as its packed RGB int.
+     */
+    private static final byte TYPE_COLOR = 4;
+
+    /**
+     * The type of a float, stored as a float so that it is read back exactly as it was written.
+     */
+    private static final byte TYPE_FLOAT = 5;
+
+    private SettingsCache() {
+    }
+
+    /**
+     * Gets the path of the cache of the given json file.
+     *
+     * @param json - The path of the json file.
+     * @return The path of the cache.
+     */
+    private static Path getCachePath(Path json) {
+        var name = json.getFileName().toString();
+        if (name.endsWith(".json"))
+            name = name.substring(0, name.length() - 5);
+        return json.resolveSibling(name + ".bin");
+    }
+
+    /**
+     * Reads the cache of the given json file.
+     *
+     * @param json - The path of the json file.
+     * @return The decoded settings, or null if the cache can not be used.
+     */
+    static Map<String, Object> read(Path json) {
+        var cache = getCachePath(json);
+        if (!Files.exists(cache) || !Files.exists(json))
+            return null;
+        try {
+            // the cache is tiny, so it is read into the heap; a mapping would keep the file locked on some systems
+            // until it is garbage collected, which makes replacing it fail
+            var size = Files.size(cache);
+            if (size < HEADER_SIZE + 4 || size > MAX_SIZE)
+                return null;
+            var buffer = ByteBuffer.wrap(Files.readAllBytes(cache));
+            size = buffer.capacity();
+            if (size < HEADER_SIZE + 4)
+                return null;
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+                return null;
+            if (buffer.getLong() != Files.getLastModifiedTime(json).toMillis() || buffer.getLong() != Files.size(json))
+                return null;
+            var crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) size - 4));
+            if (buffer.getInt((int) size - 4) != (int) crc.getValue())
+                return null;
+            buffer.limit((int) size - 4);
+            var count = buffer.getInt();
+            var settings = new HashMap<String, Object>(count * 2);
+            for (int i = 0; i < count; i++) {
+                var name = readString(buffer);
+                var value = readValue(buffer);
+                if (value == null)
+                    return null;
+                settings.put(name, value);
+            }
+            return settings;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the cache of the given json file, which must already be written. If a setting has a type the format does
+     * not support, the cache is deleted instead.
+     *
+     * @param json     - The path of the json file.
+     * @param settings - The decoded settings that were written to the json file.
+     */
+    static void write(Path json, Map<String, Object> settings) {
+        var cache = getCachePath(json);
+        try {
+            var bytes = new ByteArrayOutputStream();
+            var out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(Files.getLastModifiedTime(json).toMillis());
+            out.writeLong(Files.size(json));
+            out.writeInt(settings.size());
+            for (var entry : settings.entrySet()) {
+                writeString(out, entry.getKey());
+                if (!writeValue(out, entry.getValue())) {
+                    Files.deleteIfExists(cache);
+                    return;
+                }
+            }
+            var crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            var temp = cache.resolveSibling(cache.getFileName() + ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // the cache is only an optimization, the json file is still there
+            GavUI.LOGGER.warn("Could not write the settings cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a single value.
+     *
+     * @return False if the type of the value is not supported.
+     */
+    private static boolean writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Boolean b) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Float f) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat(f);
+        } else if (value instanceof Double d) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof String s) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, s);
+        } else if (value instanceof Color c) {
+            out.writeByte(TYPE_COLOR);
+            out.writeInt(c.getAsInt());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a single value.
+     *
+     * @return The value, or null if its type is not known.
+     */
+    private static Object readValue(ByteBuffer buffer) {
+        return switch (buffer.get()) {
+            case TYPE_BOOLEAN -> buffer.get() != 0;
+            case TYPE_LONG -> buffer.getLong();
+            case TYPE_DOUBLE -> buffer.getDouble();
+            case TYPE_FLOAT -> buffer.getFloat();
+            case TYPE_STRING -> readString(buffer);
+            case TYPE_COLOR -> Color.fromInt(buffer.getInt());
+            default -> null;
+        };
+    }
+
+    /**
+     * Writes a string as its length followed by its UTF-8 bytes.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        var bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    private static String readString(ByteBuffer buffer) {
+        var length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining())
+            throw new IllegalArgumentException("Invalid string length " + length);
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
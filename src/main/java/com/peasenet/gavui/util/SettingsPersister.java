@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.ToNumberPolicy;
+import com.peasenet.gavui.GavUI;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Writes the settings file on a background thread. Saves are coalesced: the file is only written once no save has been
+ * requested for a short quiet period, and only the latest settings are written. The file is written to a temporary
+ * file first and then moved over the settings file, so a crash never leaves a half written file behind. Pending
+ * settings are written when the game shuts down.
+ */
+class SettingsPersister {
+
+    /**
+     * How long to wait after the last save request before writing, in milliseconds.
+     */
+    private static final long QUIET_PERIOD_MS = 500;
+
+    /**
+     * The thread the settings file is written on.
+     */
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "GavUI settings writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Supplies the settings waiting to be written, or null if everything was written. The settings are only taken when
+     * they are written, so the latest settings are always written even if saves race.
+     */
+    private static Supplier<Map<String, Object>> pending;
+
+    /**
+     * The file the pending settings are written to.
+     */
+    private static Path pendingPath;
+
+    /**
+     * The scheduled write of the pending settings.
+     */
+    private static ScheduledFuture<?> scheduled;
+
+    /**
+     * Held while the settings are taken and written, so that the writer thread and the shutdown hook never write at
+     * the same time, and never write in a different order than they took the settings. Requesting a save does not
+     * wait for it.
+     */
+    private static final Object writeLock = new Object();
+
+    /**
+     * The modification time of the settings file right after it was last written, or -1 if it was not written yet.
+     */
+    private static volatile long lastWrittenTime = -1;
+
+    /**
+     * The size of the settings file right after it was last written.
+     */
+    private static volatile long lastWrittenSize = -1;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SettingsPersister::flush, "GavUI settings shutdown writer"));
+    }
+
+    private SettingsPersister() {
+    }
+
+    /**
+     * Requests the given settings to be written to the given file after the quiet period. A request replaces every
+     * request that was not written yet.
+     *
+     * @param path     - The settings file.
+     * @param settings - Supplies the settings to write. The map it supplies must not be modified afterwards.
+     */
+    static synchronized void schedule(Path path, Supplier<Map<String, Object>> settings) {
+        pending = settings;
+        pendingPath = path;
+        if (scheduled != null)
+            scheduled.cancel(false);
+        scheduled = executor.schedule(SettingsPersister::flush, QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the pending settings right away on the calling thread, if there are any. The settings are taken while
+     * holding the write lock, so a flush that writes after another one always writes settings at least as new.
+     */
+    static void flush() {
+        synchronized (writeLock) {
+            Supplier<Map<String, Object>> settings;
+            Path path;
+            synchronized (SettingsPersister.class) {
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                    scheduled = null;
+                }
+                settings = pending;
+                path = pendingPath;
+                pending = null;
+            }
+            if (settings != null)
+                write(path, settings.get());
+        }
+    }
+
+    /**
+     * Whether the given settings file is exactly as it was last written by this persister, meaning a change of it was
+     * caused by the persister itself.
+     *
+     * @param path - The settings file.
+     * @return True if the file was not changed since it was last written here.
+     */
+    static boolean isOwnWrite(Path path) {
+        synchronized (writeLock) {
+            try {
+                return lastWrittenTime != -1 && Files.getLastModifiedTime(path).toMillis() == lastWrittenTime
+                        && Files.size(path) == lastWrittenSize;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Whether there are settings waiting to be written.
+     *
+     * @return True if a write is pending.
+     */
+    static synchronized boolean isPending() {
+        return pending != null;
+    }
+
+    /**
+     * Writes the given settings to a temporary file and moves it over the settings file, then updates the binary cache
+     * of the file, see {@link SettingsCache}.
+     *
+     * @param path     - The settings file.
+     * @param settings - The settings to write.
+     */
+    private static void write(Path path, Map<String, Object> settings) {
+        var json = new GsonBuilder().setPrettyPrinting().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
+        var temp = path.resolveSibling(path.getFileName() + ".tmp");
+        synchronized (writeLock) {
+            if (writeFile(json.toJson(settings), temp, path)) {
+                try {
+                    lastWrittenSize = Files.size(path);
+                    lastWrittenTime = Files.getLastModifiedTime(path).toMillis();
+                } catch (IOException ignored) {
+                    lastWrittenTime = -1;
+                }
+                SettingsCache.write(path, settings);
+            }
+        }
+    }
+
+    /**
+     * Writes the given json to the temporary file and moves it over the settings file.
+     *
+     * @param json - The json to write.
+     * @param temp - The temporary file.
+     * @param path - The settings file.
+     * @return True if the file was written.
+     */
+    private static boolean writeFile(String json, Path temp, Path path) {
+        try {
+            Files.writeString(temp, json);
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            GavUI.LOGGER.error("Error saving settings file.");
+            GavUI.LOGGER.error(e.getMessage());
+            return false;
+        }
+    }
+}
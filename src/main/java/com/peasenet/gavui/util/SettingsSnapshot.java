@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * An immutable view of every setting. {@link GavUISettings} publishes the current snapshot through a single atomic
+ * reference, so readers on any thread see a consistent set of values without locking, and writers replace the whole
+ * snapshot with a compare-and-swap.
+ */
+final class SettingsSnapshot {
+
+    /**
+     * The snapshot before anything is loaded or registered.
+     */
+    static final SettingsSnapshot EMPTY = new SettingsSnapshot(Collections.emptyMap(), new Object[16], new float[16], new boolean[16], 0);
+
+    /**
+     * The decoded value of every setting, by name.
+     */
+    private final Map<String, Object> settings;
+
+    /**
+     * The value of every registered setting, indexed by the slot of its key.
+     */
+    private final Object[] values;
+
+    /**
+     * The value of every registered float setting, indexed by the slot of its key.
+     */
+    private final float[] floats;
+
+    /**
+     * The value of every registered boolean setting, indexed by the slot of its key.
+     */
+    private final boolean[] bools;
+
+    /**
+     * The version of the settings, incremented every time a value changes.
+     */
+    private final int version;
+
+    private SettingsSnapshot(Map<String, Object> settings, Object[] values, float[] floats, boolean[] bools, int version) {
+        this.settings = settings;
+        this.values = values;
+        this.floats = floats;
+        this.bools = bools;
+        this.version = version;
+    }
+
+    /**
+     * Gets the decoded value of the given setting.
+     *
+     * @param name - The name of the setting.
+     * @return The value, or null if the setting does not exist.
+     */
+    Object get(String name) {
+        return settings.get(name);
+    }
+
+    /**
+     * Gets every setting. The map can not be modified.
+     *
+     * @return Every setting, by name.
+     */
+    Map<String, Object> getSettings() {
+        return settings;
+    }
+
+    /**
+     * Whether this snapshot has a value for the given slot, which is not the case for keys registered after it was
+     * created.
+     *
+     * @param slot - The slot of a registered key.
+     * @return True if the slot has a value.
+     */
+    boolean hasSlot(int slot) {
+        return slot < values.length && values[slot] != null;
+    }
+
+    /**
+     * Gets the value in the given slot.
+     *
+     * @param slot - The slot of a registered key.
+     * @return The value of the setting.
+     */
+    Object getValue(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Gets the float value in the given slot.
+     *
+     * @param slot - The slot of a registered float key.
+     * @return The value of the setting.
+     */
+    float getFloat(int slot) {
+        return floats[slot];
+    }
+
+    /**
+     * Gets the boolean value in the given slot.
+     *
+     * @param slot - The slot of a registered boolean key.
+     * @return The value of the setting.
+     */
+    boolean getBool(int slot) {
+        return bools[slot];
+    }
+
+    /**
+     * Gets the version of the settings.
+     *
+     * @return The version.
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Creates a copy of this snapshot with a slot for the given newly registered key.
+     *
+     * @param key - The key.
+     * @return The new snapshot.
+     */
+    SettingsSnapshot withKey(SettingKey<?> key) {
+        var capacity = values.length;
+        while (key.slot >= capacity)
+            capacity *= 2;
+        var next = new SettingsSnapshot(settings, Arrays.copyOf(values, capacity), Arrays.copyOf(floats, capacity), Arrays.copyOf(bools, capacity), version);
+        next.fillSlot(key, settings.get(key.getName()));
+        return next;
+    }
+
+    /**
+     * Creates a copy of this snapshot with the given settings changed, and a newer version.
+     *
+     * @param changes - The decoded settings that changed, by name.
+     * @param keys    - Every registered key, by name.
+     * @return The new snapshot.
+     */
+    SettingsSnapshot withSettings(Map<String, Object> changes, Map<String, SettingKey<?>> keys) {
+        var map = new HashMap<>(settings);
+        map.putAll(changes);
+        var next = new SettingsSnapshot(Collections.unmodifiableMap(map), values.clone(), floats.clone(), bools.clone(), version + 1);
+        for (var name : changes.keySet()) {
+            var key = keys.get(name);
+            // a key registered concurrently gets its slot when it is published
+            if (key != null && key.slot < values.length)
+                next.fillSlot(key, changes.get(name));
+        }
+        return next;
+    }
+
+    /**
+     * Copies the value of a setting into the slot of its key. This may only be called before the snapshot is
+     * published. Values that are missing or have the wrong type are replaced by the default value of the key.
+     *
+     * @param key   - The key of the setting.
+     * @param value - The decoded value of the setting.
+     */
+    private void fillSlot(SettingKey<?> key, Object value) {
+        if (key.getType() == Float.class && value instanceof Number n)
+            value = n.floatValue();
+        if (!key.getType().isInstance(value))
+            value = key.getDefaultValue();
+        values[key.slot] = value;
+        if (value instanceof Float f)
+            floats[key.slot] = f;
+        if (value instanceof Boolean b)
+            bools[key.slot] = b;
+    }
+}
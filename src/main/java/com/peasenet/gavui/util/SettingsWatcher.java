@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import com.peasenet.gavui.GavUI;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Watches the settings file for changes made outside the game, and reloads the settings on its own daemon thread once
+ * the file has stopped changing for a short while. Writes made by {@link SettingsPersister} are ignored.
+ */
+class SettingsWatcher implements AutoCloseable {
+
+    /**
+     * How long the file has to stay unchanged before it is reloaded, in milliseconds.
+     */
+    private static final long DEBOUNCE_MS = 250;
+
+    /**
+     * The settings file.
+     */
+    private final Path file;
+
+    /**
+     * The watch service of the directory of the settings file.
+     */
+    private final WatchService watchService;
+
+    /**
+     * The thread waiting for changes.
+     */
+    private final Thread thread;
+
+    /**
+     * Whether the watcher is still running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Starts watching the given settings file.
+     *
+     * @param file - The settings file.
+     * @throws IOException If the directory of the file can not be watched.
+     */
+    SettingsWatcher(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::run, "GavUI settings watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Waits for changes of the settings file and reloads it, until the watcher is closed.
+     */
+    private void run() {
+        try {
+            while (running) {
+                var key = watchService.take();
+                var changed = false;
+                for (var event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context()))
+                        changed = true;
+                }
+                key.reset();
+                if (!changed)
+                    continue;
+                // wait until the file stops changing, editors often write it in several steps
+                while ((key = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                if (running && !SettingsPersister.isOwnWrite(file))
+                    GavUISettings.reload(file);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // the watcher was closed
+        } catch (RuntimeException e) {
+            GavUI.LOGGER.error("The settings watcher stopped.", e);
+        }
+    }
+
+    /**
+     * Stops watching the settings file.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            GavUI.LOGGER.error(e.getMessage());
+        }
+        thread.interrupt();
+    }
+}
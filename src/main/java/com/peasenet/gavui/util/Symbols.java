@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Style;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A registry of the single character symbols drawn next to gui elements, such as the check boxes and dropdown arrows.
+ * The prepared text of every symbol is built once and its width is measured once per {@link TextCache} generation, so
+ * drawing a symbol does not allocate.
+ */
+public class Symbols {
+
+    /**
+     * The symbol of an enabled toggle.
+     */
+    public static final char CHECKED = '\u2611';
+
+    /**
+     * The symbol of a disabled toggle.
+     */
+    public static final char UNCHECKED = '\u2610';
+
+    /**
+     * The symbol of a closed dropdown that opens to the right.
+     */
+    public static final char ARROW_RIGHT = '\u25B6';
+
+    /**
+     * The symbol of a closed dropdown that opens downwards.
+     */
+    public static final char ARROW_DOWN = '\u25BC';
+
+    /**
+     * The symbols of the registry, in an open addressing table. An empty slot holds '\0'.
+     */
+    private static char[] keys = new char[32];
+
+    /**
+     * The glyphs of the symbols, at the same index as their symbol in {@link #keys}.
+     */
+    private static Glyph[] glyphs = new Glyph[32];
+
+    /**
+     * The number of symbols in the registry.
+     */
+    private static int size = 0;
+
+    static {
+        register(CHECKED);
+        register(UNCHECKED);
+        register(ARROW_RIGHT);
+        register(ARROW_DOWN);
+    }
+
+    private Symbols() {
+    }
+
+    /**
+     * Registers a symbol so that its prepared text is built ahead of time. Symbols that are not registered are added
+     * the first time they are drawn.
+     *
+     * @param symbol - The symbol to register.
+     * @return The glyph of the symbol.
+     */
+    public static Glyph register(char symbol) {
+        return get(symbol);
+    }
+
+    /**
+     * Gets the glyph of the given symbol, adding it to the registry if needed.
+     *
+     * @param symbol - The symbol, which may not be '\0'.
+     * @return The glyph of the symbol.
+     */
+    public static synchronized Glyph get(char symbol) {
+        if (symbol == '\0')
+            throw new IllegalArgumentException("The null character is not a symbol.");
+        var mask = keys.length - 1;
+        var i = symbol & mask;
+        while (keys[i] != '\0') {
+            if (keys[i] == symbol)
+                return glyphs[i];
+            i = (i + 1) & mask;
+        }
+        var glyph = new Glyph(symbol);
+        keys[i] = symbol;
+        glyphs[i] = glyph;
+        if (++size * 2 > keys.length)
+            grow();
+        return glyph;
+    }
+
+    /**
+     * Doubles the size of the table and re-inserts every symbol.
+     */
+    private static void grow() {
+        var oldKeys = keys;
+        var oldGlyphs = glyphs;
+        keys = new char[oldKeys.length * 2];
+        glyphs = new Glyph[oldKeys.length * 2];
+        var mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == '\0')
+                continue;
+            var i = oldKeys[j] & mask;
+            while (keys[i] != '\0')
+                i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            glyphs[i] = oldGlyphs[j];
+        }
+    }
+
+    /**
+     * A single prepared symbol.
+     */
+    public static class Glyph {
+        /**
+         * The symbol of this glyph.
+         */
+        private final char symbol;
+
+        /**
+         * The prepared text of the symbol.
+         */
+        private final OrderedText text;
+
+        /**
+         * The measured width of the symbol, or -1 if it has not been measured yet.
+         */
+        private int width = -1;
+
+        /**
+         * The generation of the text cache the width was measured in.
+         */
+        private int generation;
+
+        private Glyph(char symbol) {
+            this.symbol = symbol;
+            this.text = OrderedText.styled(symbol, Style.EMPTY);
+        }
+
+        /**
+         * Gets the symbol of this glyph.
+         *
+         * @return The symbol.
+         */
+        public char getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * Gets the prepared text of the symbol.
+         *
+         * @return The prepared text.
+         */
+        public OrderedText getText() {
+            return text;
+        }
+
+        /**
+         * Gets the width of the symbol. It is measured again after resources are reloaded.
+         *
+         * @param textRenderer - The text renderer to measure with. If null, the width is 0.
+         * @return The width of the symbol, in pixels.
+         */
+        public int getWidth(TextRenderer textRenderer) {
+            if (width == -1 || generation != TextCache.getGeneration()) {
+                if (textRenderer == null) return 0;
+                width = textRenderer.getWidth(text);
+                generation = TextCache.getGeneration();
+            }
+            return width;
+        }
+    }
+}
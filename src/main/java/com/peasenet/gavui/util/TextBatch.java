@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.text.OrderedText;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A batch of text that is collected over a frame and drawn after every box and outline of that frame. All text is
+ * submitted through one shared {@link VertexConsumerProvider}, which is drawn once when the batch is flushed.
+ * Entries are reused between frames, so collecting text does not allocate once the batch has grown large enough.
+ */
+public class TextBatch {
+
+    /**
+     * The full-bright light value used for gui text.
+     */
+    private static final int LIGHT = 15728880;
+
+    /**
+     * Every entry that has been created so far. Only the first {@link #size} entries are in use.
+     */
+    private final ArrayList<Entry> entries = new ArrayList<>();
+
+    /**
+     * The number of entries currently in use.
+     */
+    private int size;
+
+    /**
+     * The vertex consumers that all text is drawn through. Created lazily on the first flush.
+     */
+    private VertexConsumerProvider.Immediate vertexConsumers;
+
+    /**
+     * Adds text to this batch.
+     *
+     * @param textRenderer - The text renderer to draw the text with.
+     * @param text         - The text to draw.
+     * @param x            - The x coordinate of the text.
+     * @param y            - The y coordinate of the text.
+     * @param color        - The color of the text.
+     * @param shadow       - Whether the text has a shadow.
+     * @param matrix       - The matrix to draw the text with. It is copied.
+     */
+    public void add(TextRenderer textRenderer, OrderedText text, float x, float y, int color, boolean shadow, Matrix4f matrix) {
+        if (size == entries.size())
+            entries.add(new Entry());
+        var entry = entries.get(size++);
+        entry.textRenderer = textRenderer;
+        entry.text = text;
+        entry.x = x;
+        entry.y = y;
+        entry.color = color;
+        entry.shadow = shadow;
+        entry.matrix.set(matrix);
+    }
+
+    /**
+     * Gets the number of texts currently held by this batch.
+     *
+     * @return The number of texts in this batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Draws all text in this batch, and empties it. Text layers change the render state, so
+     * {@link RenderStateTracker} is invalidated afterwards.
+     */
+    public void flush() {
+        flush(size);
+    }
+
+    /**
+     * Draws the first texts of this batch, in the order they were added, and keeps the rest for a later flush.
+     *
+     * @param count - The number of texts to draw, see {@link #size()}.
+     */
+    public void flush(int count) {
+        count = Math.min(count, size);
+        if (count <= 0) return;
+        if (vertexConsumers == null)
+            vertexConsumers = VertexConsumerProvider.immediate(new BufferBuilder(256));
+        for (int i = 0; i < count; i++) {
+            var entry = entries.get(i);
+            entry.textRenderer.draw(entry.text, entry.x, entry.y, entry.color, entry.shadow, entry.matrix,
+                    vertexConsumers, TextRenderer.TextLayerType.NORMAL, 0, LIGHT);
+            // don't keep the text alive until the entry is reused.
+            entry.text = null;
+        }
+        vertexConsumers.draw();
+        // move the entries that are kept to the front, and the drawn ones behind them for reuse.
+        Collections.rotate(entries.subList(0, size), -count);
+        size -= count;
+        RenderStateTracker.invalidate();
+    }
+
+    /**
+     * A single text to be drawn.
+     */
+    private static class Entry {
+        private final Matrix4f matrix = new Matrix4f();
+        private TextRenderer textRenderer;
+        private OrderedText text;
+        private float x;
+        private float y;
+        private int color;
+        private boolean shadow;
+    }
+}
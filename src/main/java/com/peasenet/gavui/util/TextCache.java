@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * A cache of the prepared {@link OrderedText} and the measured width of gui titles, so that static labels are only
+ * laid out and measured once, see {@link com.peasenet.gavui.Gui#setTitleCached(boolean)}. Text that is drawn directly
+ * is not cached.
+ * Entries are keyed by the strings and styles a text is made of, rather than by the text itself, which may be mutable.
+ * Each entry prepares its own copy of the text, so changing the text afterwards does not change the entry. The least
+ * recently used entries are evicted once the cache is full. The whole cache is cleared when resources are reloaded,
+ * which is also what happens when the language changes.
+ */
+public class TextCache {
+
+    /**
+     * The maximum number of entries kept in the cache.
+     */
+    private static final int MAX_ENTRIES = 2048;
+
+    /**
+     * The cached entries, in least recently used order.
+     */
+    private static final LinkedHashMap<List<Part>, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Part>, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Incremented every time the cache is cleared, so that entries held outside the cache know they are stale.
+     */
+    private static int generation = 0;
+
+    private TextCache() {
+    }
+
+    /**
+     * Registers the reload listener that clears the cache when resources or the language are reloaded.
+     */
+    public static void register() {
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+            @Override
+            public Identifier getFabricId() {
+                return new Identifier("gavui", "text_cache");
+            }
+
+            @Override
+            public void reload(ResourceManager manager) {
+                clear();
+            }
+        });
+    }
+
+    /**
+     * Gets the cache entry of the given text, creating it if needed. The entry may be held on to for as long as
+     * {@link Entry#isValid()} returns true, which avoids looking it up again.
+     *
+     * @param text - The text to get the entry of.
+     * @return The entry of the text.
+     */
+    public static Entry get(Text text) {
+        return get(keyOf(text));
+    }
+
+    /**
+     * Gets the cache entry of the given key, creating it from a copy of the text the key was made from if needed.
+     *
+     * @param key - The key of the text.
+     * @return The entry of the text.
+     */
+    private static synchronized Entry get(List<Part> key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            var copy = Text.empty();
+            for (var part : key)
+                copy.append(Text.literal(part.string()).setStyle(part.style()));
+            entry = new Entry(copy, generation);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the key of the given text, which is the strings it is made of, each with its style.
+     *
+     * @param text - The text to get the key of.
+     * @return The key of the text.
+     */
+    private static List<Part> keyOf(Text text) {
+        var parts = new ArrayList<Part>();
+        text.visit((style, string) -> {
+            if (!string.isEmpty())
+                parts.add(new Part(style, string));
+            return Optional.empty();
+        }, Style.EMPTY);
+        return List.copyOf(parts);
+    }
+
+    /**
+     * Creates an entry for the given text without adding it to the cache. This is meant for text that is only shown
+     * once, such as frequently changing values, which would otherwise push texts that are used again out of the cache.
+     *
+     * @param text - The text to create the entry of.
+     * @return The new entry.
+     */
+    public static Entry uncached(Text text) {
+        return new Entry(text, generation);
+    }
+
+    /**
+     * Gets the current generation of the cache, which changes every time the cache is cleared.
+     *
+     * @return The current generation.
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Removes every entry from the cache.
+     */
+    public static synchronized void clear() {
+        entries.clear();
+        generation++;
+    }
+
+    /**
+     * A string of a text, with the style it is drawn in.
+     *
+     * @param style  - The style of the string.
+     * @param string - The string.
+     */
+    private record Part(Style style, String string) {
+    }
+
+    /**
+     * A single cached text.
+     */
+    public static class Entry {
+        /**
+         * The text this entry was created from. For cached entries, this is a copy owned by the cache.
+         */
+        private final Text text;
+
+        /**
+         * The prepared text.
+         */
+        private final OrderedText orderedText;
+
+        /**
+         * The generation of the cache this entry was created in.
+         */
+        private final int generation;
+
+        /**
+         * The measured width of the text, or -1 if it has not been measured yet.
+         */
+        private int width = -1;
+
+        private Entry(Text text, int generation) {
+            this.text = text;
+            this.orderedText = text.asOrderedText();
+            this.generation = generation;
+        }
+
+        /**
+         * Gets the text this entry was created from.
+         *
+         * @return The text.
+         */
+        public Text getText() {
+            return text;
+        }
+
+        /**
+         * Gets the prepared ordered text.
+         *
+         * @return The ordered text.
+         */
+        public OrderedText getOrderedText() {
+            return orderedText;
+        }
+
+        /**
+         * Gets the width of the text, measuring it the first time.
+         *
+         * @param textRenderer - The text renderer to measure with. If null, the width is 0.
+         * @return The width of the text, in pixels.
+         */
+        public int getWidth(TextRenderer textRenderer) {
+            if (width == -1) {
+                if (textRenderer == null) return 0;
+                width = textRenderer.getWidth(orderedText);
+            }
+            return width;
+        }
+
+        /**
+         * Whether this entry is still up-to-date, meaning the cache has not been cleared since it was created.
+         *
+         * @return True if the entry can still be used.
+         */
+        public boolean isValid() {
+            return generation == TextCache.generation;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.peasenet.gavui;
+
+import com.peasenet.gavui.color.ContrastResolver;
+import com.peasenet.gavui.color.PackedColor;
+import com.peasenet.gavui.math.PointF;
+import com.peasenet.gavui.util.GuiUtil;
+import com.peasenet.gavui.util.RecordingRenderBackend;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.Test;
+
+import static com.peasenet.gavui.util.RecordingRenderBackend.FILL_RECT;
+import static com.peasenet.gavui.util.RecordingRenderBackend.LINE;
+import static com.peasenet.gavui.util.RecordingRenderBackend.OUTLINE_RECT;
+import static com.peasenet.gavui.util.RecordingRenderBackend.TEXT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Renders trees of gui elements into a {@link RecordingRenderBackend}, without a game or a GL context, and checks what
+ * was drawn.
+ */
+class GuiRenderTest {
+
+    @Test
+    void everyGuiDrawsItsBoxTitleAndBorder() {
+        var parent = createGui("Parent", 10, 20);
+        var child = createGui("Child", 0, 0);
+        parent.addElement(child);
+
+        var recorder = render(parent, new DrawContext(null, null));
+
+        assertEquals(1, recorder.getFrames());
+        assertEquals(6, recorder.size());
+        assertEquals(2, recorder.count(FILL_RECT));
+        assertEquals(2, recorder.count(OUTLINE_RECT));
+        assertEquals(2, recorder.count(TEXT));
+        assertEquals(0, recorder.count(LINE));
+        assertGuiDrawn(recorder, 0, parent, "Parent", 0, 0);
+        assertGuiDrawn(recorder, 3, child, "Child", 0, 0);
+    }
+
+    @Test
+    void coordinatesAreTransformedByTheMatrix() {
+        var gui = createGui("Moved", 10, 20);
+        var drawContext = new DrawContext(null, null);
+        drawContext.getMatrices().translate(5, 7, 0);
+
+        var recorder = render(gui, drawContext);
+
+        assertEquals(3, recorder.size());
+        assertGuiDrawn(recorder, 0, gui, "Moved", 5, 7);
+    }
+
+    @Test
+    void hiddenGuisAreNotDrawn() {
+        var parent = createGui("Parent", 10, 20);
+        var child = createGui("Child", 0, 0);
+        parent.addElement(child);
+        child.hide();
+
+        var recorder = render(parent, new DrawContext(null, null));
+
+        assertEquals(3, recorder.size());
+        assertGuiDrawn(recorder, 0, parent, "Parent", 0, 0);
+    }
+
+    /**
+     * Creates a gui with a title and a border, which is not hovered by the mouse used in {@link #render}.
+     *
+     * @param title - The title of the gui.
+     * @param x     - The x coordinate of the gui.
+     * @param y     - The y coordinate of the gui.
+     * @return The new gui.
+     */
+    private static Gui createGui(String title, int x, int y) {
+        return new GuiBuilder()
+                .setTopLeft(new PointF(x, y))
+                .setWidth(100)
+                .setHeight(12)
+                .setTitle(Text.literal(title))
+                .build();
+    }
+
+    /**
+     * Renders the given gui into a new recorder, drawing to the game window again afterwards.
+     *
+     * @param gui         - The gui to render.
+     * @param drawContext - The draw context to render with.
+     * @return The recorder with everything that was drawn.
+     */
+    private static RecordingRenderBackend render(Gui gui, DrawContext drawContext) {
+        var recorder = new RecordingRenderBackend();
+        GuiUtil.setBackend(recorder);
+        try {
+            gui.render(drawContext, null, -1, -1, 0);
+        } finally {
+            GuiUtil.setBackend(null);
+        }
+        return recorder;
+    }
+
+    /**
+     * Checks that the box, the title and the border of the given gui were recorded, in that order.
+     *
+     * @param recorder - The recorder the gui was rendered into.
+     * @param index    - The index of the box of the gui.
+     * @param gui      - The gui.
+     * @param title    - The expected title.
+     * @param offsetX  - How far the gui was moved along the x-axis by the matrix.
+     * @param offsetY  - How far the gui was moved along the y-axis by the matrix.
+     */
+    private static void assertGuiDrawn(RecordingRenderBackend recorder, int index, Gui gui, String title, float offsetX, float offsetY) {
+        var x1 = gui.getX() + offsetX;
+        var y1 = gui.getY() + offsetY;
+        var x2 = gui.getX2() + offsetX;
+        var y2 = gui.getY2() + offsetY;
+        var background = GavUI.backgroundColor();
+
+        assertEquals(FILL_RECT, recorder.getType(index));
+        assertEquals(PackedColor.withAlpha(background.getArgb(), GavUI.getAlpha()), recorder.getColor(index));
+        assertBox(recorder, index, x1, y1, x2, y2);
+
+        assertEquals(TEXT, recorder.getType(index + 1));
+        assertEquals(title, toString(recorder.getText(index + 1)));
+        assertEquals(ContrastResolver.resolve(GavUI.textColor(), background, 0.3f).getArgb(), recorder.getColor(index + 1));
+        assertEquals(x1 + 2, recorder.getX1(index + 1));
+        assertEquals(y1 + 1.5f, recorder.getY1(index + 1));
+
+        assertEquals(OUTLINE_RECT, recorder.getType(index + 2));
+        assertEquals(PackedColor.withAlpha(GavUI.borderColor().getArgb(), 1f), recorder.getColor(index + 2));
+        assertBox(recorder, index + 2, x1, y1, x2, y2);
+    }
+
+    /**
+     * Checks the coordinates of a recorded rectangle.
+     */
+    private static void assertBox(RecordingRenderBackend recorder, int index, float x1, float y1, float x2, float y2) {
+        assertEquals(x1, recorder.getX1(index));
+        assertEquals(y1, recorder.getY1(index));
+        assertEquals(x2, recorder.getX2(index));
+        assertEquals(y2, recorder.getY2(index));
+    }
+
+    /**
+     * Gets the characters of a recorded text.
+     *
+     * @param text - The text.
+     * @return The characters of the text.
+     */
+    private static String toString(OrderedText text) {
+        var builder = new StringBuilder();
+        text.accept((index, style, codePoint) -> {
+            builder.appendCodePoint(codePoint);
+            return true;
+        });
+        return builder.toString();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2022-2023. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.gavui.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author gt3ch1
+ * @version 10/17/2026
+ * Stress tests of {@link SettingsSnapshot} and the compare-and-swap updates of {@link GavUISettings}. These run
+ * without a game, so the settings are saved to a temporary file.
+ */
+class SettingsConcurrencyTest {
+
+    /**
+     * The number of threads writing or reading at once.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * The number of operations every thread does.
+     */
+    private static final int ITERATIONS = 2000;
+
+    @BeforeAll
+    static void useTemporaryFile() throws IOException {
+        var directory = Files.createTempDirectory("gavui-settings");
+        GavUISettings.setFile(directory.resolve("settings.json"));
+    }
+
+    @Test
+    void withSettingsLeavesTheOriginalUnchanged() {
+        var key = new SettingKey<>("test.immutable", Float.class, 0f, 0);
+        var keys = Map.<String, SettingKey<?>>of(key.getName(), key);
+        var original = SettingsSnapshot.EMPTY.withKey(key);
+        var changed = original.withSettings(Map.of(key.getName(), 1f), keys);
+
+        assertNotSame(original, changed);
+        assertEquals(0f, original.getFloat(key.slot));
+        assertEquals(1f, changed.getFloat(key.slot));
+        assertEquals(1f, changed.get(key.getName()));
+        assertEquals(original.getVersion() + 1, changed.getVersion());
+    }
+
+    @Test
+    void concurrentWritesAreNeverLost() throws Exception {
+        var settingKeys = new ArrayList<SettingKey<Float>>();
+        for (int t = 0; t < THREADS; t++)
+            settingKeys.add(SettingKey.ofFloat("test.writes." + t, 0f));
+        var startVersion = GavUISettings.getVersion();
+
+        runConcurrently(t -> {
+            var name = settingKeys.get(t).getName();
+            for (int i = 1; i <= ITERATIONS; i++)
+                GavUISettings.add(name, (float) i);
+        });
+
+        for (var key : settingKeys)
+            assertEquals(ITERATIONS, GavUISettings.getFloat(key));
+        // every write changed a value, so every write must have been committed exactly once
+        assertEquals(startVersion + THREADS * ITERATIONS, GavUISettings.getVersion());
+    }
+
+    @Test
+    void readersNeverSeeAPartialUpdate() throws Exception {
+        var a = SettingKey.ofFloat("test.pair.a", 0f);
+        var b = SettingKey.ofFloat("test.pair.b", 0f);
+        var writers = (THREADS + 1) / 2;
+        var writing = new CountDownLatch(writers);
+        var torn = new AtomicBoolean(false);
+        var startVersion = GavUISettings.getVersion();
+
+        runConcurrently(t -> {
+            if (t % 2 == 0) {
+                // writers: both settings are always put together with the same value, unique to every write
+                try {
+                    for (int i = 1; i <= ITERATIONS; i++) {
+                        var value = (float) (t * ITERATIONS + i);
+                        var changes = new HashMap<String, Object>();
+                        changes.put(a.getName(), value);
+                        changes.put(b.getName(), value);
+                        GavUISettings.putAll(changes);
+                    }
+                } finally {
+                    writing.countDown();
+                }
+            } else {
+                // readers: the slots and the map of one snapshot must always agree
+                while (writing.getCount() > 0) {
+                    var current = GavUISettings.getSnapshot();
+                    var fa = current.getFloat(a.slot);
+                    var va = current.get(a.getName());
+                    if (fa != current.getFloat(b.slot) || !Objects.equals(va, current.get(b.getName()))
+                            || (va != null && fa != (Float) va))
+                        torn.set(true);
+                }
+            }
+        });
+
+        assertFalse(torn.get());
+        assertEquals(GavUISettings.getFloat(a), GavUISettings.getFloat(b));
+        // every write changed both values, so every write must have been committed exactly once
+        assertEquals(startVersion + writers * ITERATIONS, GavUISettings.getVersion());
+    }
+
+    @Test
+    void keysRegisteredDuringWritesGetTheirDefaults() throws Exception {
+        var writeKey = SettingKey.ofFloat("test.register.write", 0f);
+        var registered = new ArrayList<List<SettingKey<Float>>>();
+        for (int t = 0; t < THREADS; t++)
+            registered.add(new ArrayList<>());
+
+        runConcurrently(t -> {
+            if (t == 0) {
+                for (int i = 1; i <= ITERATIONS; i++)
+                    GavUISettings.add(writeKey.getName(), (float) i);
+                return;
+            }
+            for (int i = 0; i < 50; i++)
+                registered.get(t).add(SettingKey.ofFloat("test.register." + t + "." + i, t + i));
+        });
+
+        assertEquals(ITERATIONS, GavUISettings.getFloat(writeKey));
+        for (int t = 1; t < THREADS; t++) {
+            for (int i = 0; i < 50; i++) {
+                var key = registered.get(t).get(i);
+                assertEquals(t + i, GavUISettings.getFloat(key), key.getName());
+                assertTrue(key.slot >= 0);
+            }
+        }
+    }
+
+    /**
+     * Runs the given task on {@link #THREADS} threads at once, and waits for all of them.
+     *
+     * @param task - The task, given the index of its thread.
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var start = new CountDownLatch(1);
+            var futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < THREADS; t++) {
+                var index = t;
+                Callable<Void> callable = () -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+            for (var future : futures)
+                future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A task run on one of the threads of {@link #runConcurrently(ThreadTask)}.
+     */
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}